@@ -0,0 +1,61 @@
+package dev.bannmann.mandor.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mizool.core.exception.CodeInconsistencyException;
+
+/**
+ * Settings shared by all benchmarks. They are spelled out instead of relying on JMH defaults so that results stay
+ * comparable across releases.
+ * <p>
+ * Scans pass a {@link ViolationListener} to the public scan methods of {@link SourceBundle} and merely collect the
+ * violations, which leaves out the reporting done by {@code verify()} and by {@link ViolationWriter}s. The benchmarks
+ * reside in the package of {@link SourceBundle} only to clear its resolution caches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public abstract class AbstractBenchmark
+{
+    protected static final String RULES_PACKAGE = "dev.bannmann.mandor.core.rules";
+
+    /**
+     * The directory to import, relative to the working directory. Defaults to the test fixtures of the core module.
+     */
+    @Param("core/src/test/java")
+    public String sourceDirectory = "";
+
+    protected SourceBundle importSources(int parallelism)
+    {
+        return new SourceBundle().withParallelism(parallelism)
+            .importSources(sourceDirectory);
+    }
+
+    protected static SourceRule createRule(String simpleName)
+    {
+        try
+        {
+            return Class.forName(RULES_PACKAGE + "." + simpleName)
+                .asSubclass(SourceRule.class)
+                .getDeclaredConstructor()
+                .newInstance();
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new CodeInconsistencyException("Could not instantiate rule " + simpleName, e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package dev.bannmann.mandor.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import lombok.Builder;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Generates a synthetic source tree for scale tests. The same settings always produce the same files.
+ * <p>
+ * Each file declares a class with fields, methods and optionally nested classes. Some fields refer to classes in other
+ * files and packages so that symbol resolution has real work to do. The rates control how often nullness annotations,
+ * suppressions and package-info files appear.
+ * <p>
+ * To generate a corpus from the command line, run {@code mvn -pl benchmarks exec:java
+ * -Dexec.mainClass=dev.bannmann.mandor.core.CorpusGenerator -Dexec.args="<target directory> <file count>"}.
+ */
+@Builder
+public final class CorpusGenerator
+{
+    private static final String BASE_PACKAGE = "org.example.corpus";
+
+    @Builder.Default
+    private final int fileCount = 10_000;
+
+    @Builder.Default
+    private final int filesPerPackage = 25;
+
+    /**
+     * The share of fields using {@code @Nullable} and of classes in packages without package-info using
+     * {@code @NullMarked}.
+     */
+    @Builder.Default
+    private final double annotationRate = 0.3;
+
+    /**
+     * The share of methods that suppress a rule.
+     */
+    @Builder.Default
+    private final double suppressionRate = 0.02;
+
+    /**
+     * The share of packages with a {@code @NullMarked} package-info file.
+     */
+    @Builder.Default
+    private final double packageInfoRate = 0.8;
+
+    @Builder.Default
+    private final int maximumNestingDepth = 2;
+
+    @Builder.Default
+    private final long seed = 42;
+
+    public static void main(String[] args) throws IOException
+    {
+        Preconditions.checkArgument(args.length == 1 || args.length == 2,
+            "Usage: CorpusGenerator <target directory> [<file count>]");
+
+        CorpusGeneratorBuilder builder = builder();
+        if (args.length == 2)
+        {
+            builder.fileCount(Integer.parseInt(args[1]));
+        }
+        builder.build()
+            .generate(Path.of(args[0]));
+    }
+
+    public void generate(Path targetDirectory) throws IOException
+    {
+        Preconditions.checkArgument(fileCount > 0, "File count must be positive, but was %s", fileCount);
+        Preconditions.checkArgument(filesPerPackage > 0,
+            "Files per package must be positive, but was %s",
+            filesPerPackage);
+
+        var random = new Random(seed);
+        int packageCount = (fileCount + filesPerPackage - 1) / filesPerPackage;
+        for (int packageIndex = 0; packageIndex < packageCount; packageIndex++)
+        {
+            String packageName = getPackageName(packageIndex);
+            Path directory = targetDirectory.resolve(packageName.replace('.', '/'));
+            Files.createDirectories(directory);
+
+            boolean packageNullMarked = random.nextDouble() < packageInfoRate;
+            if (packageNullMarked)
+            {
+                Files.writeString(directory.resolve("package-info.java"),
+                    "@NullMarked\npackage %s;\n\nimport org.jspecify.annotations.NullMarked;\n".formatted(packageName));
+            }
+
+            int end = Math.min(fileCount, (packageIndex + 1) * filesPerPackage);
+            for (int fileIndex = packageIndex * filesPerPackage; fileIndex < end; fileIndex++)
+            {
+                Files.writeString(directory.resolve(getSimpleName(fileIndex) + ".java"),
+                    generateFile(random, packageName, fileIndex, packageNullMarked));
+            }
+        }
+    }
+
+    private String getPackageName(int packageIndex)
+    {
+        return "%s.g%03d.p%03d".formatted(BASE_PACKAGE, packageIndex / 100, packageIndex % 100);
+    }
+
+    private String getSimpleName(int fileIndex)
+    {
+        return "Type%06d".formatted(fileIndex);
+    }
+
+    private String getQualifiedName(int fileIndex)
+    {
+        return getPackageName(fileIndex / filesPerPackage) + "." + getSimpleName(fileIndex);
+    }
+
+    private String generateFile(Random random, String packageName, int fileIndex, boolean packageNullMarked)
+    {
+        var code = new StringBuilder();
+        code.append("package ")
+            .append(packageName)
+            .append(";\n\n")
+            .append("import java.util.List;\n\n")
+            .append("import org.jspecify.annotations.NullMarked;\n")
+            .append("import org.jspecify.annotations.Nullable;\n\n")
+            .append("import dev.bannmann.labs.annotations.SuppressWarningsRationale;\n\n");
+
+        if (!packageNullMarked && random.nextDouble() < annotationRate)
+        {
+            code.append("@NullMarked\n");
+        }
+
+        appendClass(code, random, fileIndex, getSimpleName(fileIndex), "public ", 0);
+        return code.toString();
+    }
+
+    private void appendClass(
+        StringBuilder code, Random random, int fileIndex, String simpleName, String modifiers, int depth)
+    {
+        String indent = "    ".repeat(depth);
+        String memberIndent = indent + "    ";
+
+        code.append(indent)
+            .append(modifiers)
+            .append("class ")
+            .append(simpleName)
+            .append('\n')
+            .append(indent)
+            .append("{\n");
+
+        code.append(memberIndent)
+            .append("private int flags;\n");
+        String labelField = random.nextDouble() < annotationRate
+            ? "private @Nullable String label;"
+            : "private String label = \"\";";
+        code.append(memberIndent)
+            .append(labelField)
+            .append('\n');
+        if (fileIndex > 0)
+        {
+            int relatedIndex = fileIndex - 1 - random.nextInt(Math.min(fileIndex, 100));
+            code.append(memberIndent)
+                .append("private @Nullable ")
+                .append(getQualifiedName(relatedIndex))
+                .append(" related;\n");
+        }
+
+        boolean suppressed = random.nextDouble() < suppressionRate;
+        String combination = suppressed || random.nextDouble() < 0.1 ? "flags | value" : "flags + value";
+        List<String> annotations = suppressed
+            ? List.of("@SuppressWarnings(\"BitwiseOperatorUsage\")",
+            "@SuppressWarningsRationale(\"Generated for scale tests\")")
+            : List.of();
+        appendMethod(code, memberIndent, annotations, "public int combine(int value)", "return " + combination + ";");
+        appendMethod(code,
+            memberIndent,
+            List.of(),
+            "public boolean differs(boolean first, boolean second)",
+            "return first ^ second;");
+        appendMethod(code,
+            memberIndent,
+            List.of(),
+            "public List<String> labels()",
+            "return List.of(String.valueOf(label));");
+
+        if (depth < maximumNestingDepth && random.nextBoolean())
+        {
+            code.append('\n');
+            appendClass(code, random, fileIndex, "Nested" + (depth + 1), "public static ", depth + 1);
+        }
+
+        code.append(indent)
+            .append("}\n");
+    }
+
+    private void appendMethod(
+        StringBuilder code, String indent, List<String> annotations, String signature, String statement)
+    {
+        code.append('\n');
+        for (String annotation : annotations)
+        {
+            code.append(indent)
+                .append(annotation)
+                .append('\n');
+        }
+        code.append(indent)
+            .append(signature)
+            .append('\n')
+            .append(indent)
+            .append("{\n")
+            .append(indent)
+            .append("    ")
+            .append(statement)
+            .append('\n')
+            .append(indent)
+            .append("}\n");
+    }
+}
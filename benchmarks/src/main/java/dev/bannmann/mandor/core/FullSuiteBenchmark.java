@@ -0,0 +1,55 @@
+package dev.bannmann.mandor.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import dev.bannmann.mandor.core.SourceRule.Status;
+
+/**
+ * Measures scanning already imported sources with all rules, either in a single pass or one rule after the other.
+ */
+public class FullSuiteBenchmark extends AbstractBenchmark
+{
+    @Param({ "true", "false" })
+    public boolean singlePass;
+
+    private SourceBundle sourceBundle = new SourceBundle();
+    private List<Supplier<SourceRule>> ruleFactories = List.of();
+
+    @Setup(Level.Trial)
+    public void importSources()
+    {
+        sourceBundle = importSources(1);
+        ruleFactories = SourceRuleProvider.load()
+            .customFrom(RULES_PACKAGE, Status.RECOMMENDED, Status.OPTIONAL, Status.EXPERIMENTAL)
+            .asFactories();
+    }
+
+    @Benchmark
+    public List<Violation> runScan()
+    {
+        List<SourceRule> rules = ruleFactories.stream()
+            .map(Supplier::get)
+            .toList();
+
+        List<Violation> result = new ArrayList<>();
+        if (singlePass)
+        {
+            sourceBundle.scanAll(rules, result::add);
+        }
+        else
+        {
+            for (SourceRule rule : rules)
+            {
+                sourceBundle.scan(rule, result::add);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+package dev.bannmann.mandor.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Measures how many times per second the source directory can be imported, i.e. searched and parsed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ImportBenchmark extends AbstractBenchmark
+{
+    @Param({ "1", "4" })
+    public int parallelism;
+
+    @Benchmark
+    public SourceBundle importSources()
+    {
+        return importSources(parallelism);
+    }
+}
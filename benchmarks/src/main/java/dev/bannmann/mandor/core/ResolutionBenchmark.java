@@ -0,0 +1,42 @@
+package dev.bannmann.mandor.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures rules that rely heavily on symbol resolution. Unlike {@link RuleScanBenchmark}, the resolution caches are
+ * cleared before each invocation so that every scan starts out like the first one after importing. The sources are
+ * imported only once, which keeps parsing out of the setup of each invocation.
+ */
+public class ResolutionBenchmark extends AbstractBenchmark
+{
+    @Param({ "BitwiseOperatorUsage", "RedundantlyNullMarkedCode" })
+    public String ruleName = "";
+
+    private SourceBundle sourceBundle = new SourceBundle();
+
+    @Setup(Level.Trial)
+    public void importSources()
+    {
+        sourceBundle = importSources(1);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearResolutionCaches()
+    {
+        sourceBundle.clearResolutionCaches();
+    }
+
+    @Benchmark
+    public List<Violation> runScan()
+    {
+        List<Violation> result = new ArrayList<>();
+        sourceBundle.scan(createRule(ruleName), result::add);
+        return result;
+    }
+}
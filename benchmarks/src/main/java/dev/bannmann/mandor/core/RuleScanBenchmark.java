@@ -0,0 +1,49 @@
+package dev.bannmann.mandor.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures the cost of scanning already imported sources with a single rule. Each invocation uses a new rule instance,
+ * but the bundle and thus the caches of the symbol solver are reused, so this reflects the steady state.
+ */
+public class RuleScanBenchmark extends AbstractBenchmark
+{
+    @Param({
+        "AssertStatementUsage",
+        "BitwiseOperatorUsage",
+        "HardcodedClassReference",
+        "MalformedExhaustiveSwitch",
+        "MissingPackageNullnessDefault",
+        "MissingSuppressionRationale",
+        "NullabilityAnnotationOutsideNullMarkedCode",
+        "OctalNumberUsage",
+        "OrphanedSuppressionRationale",
+        "OvercomplicatedSuppressionRationale",
+        "RedundantlyNullMarkedCode",
+        "UndesiredNullabilityAnnotation",
+        "UndesiredThreadSafetyAnnotation"
+    })
+    public String ruleName = "";
+
+    private SourceBundle sourceBundle = new SourceBundle();
+
+    @Setup(Level.Trial)
+    public void importSources()
+    {
+        sourceBundle = importSources(1);
+    }
+
+    @Benchmark
+    public List<Violation> runScan()
+    {
+        List<Violation> result = new ArrayList<>();
+        sourceBundle.scan(createRule(ruleName), result::add);
+        return result;
+    }
+}
@@ -0,0 +1,189 @@
+package dev.bannmann.mandor.core;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import dev.bannmann.mandor.core.SourceRule.Status;
+
+/**
+ * Runs all rules on a large code base and reports wall time, heap use and throughput.
+ * <p>
+ * Arguments, which may be combined and repeated:
+ * <ul>
+ *     <li>{@code --source <directory>}: scan the given directory</li>
+ *     <li>{@code --generate <file count>}: scan a corpus created by {@link CorpusGenerator} in a temporary
+ *     directory</li>
+ *     <li>{@code --jdk}: scan the {@code lib/src.zip} of the running JDK</li>
+ *     <li>{@code --zip <file>}: scan a zip file laid out like {@code src.zip}</li>
+ *     <li>{@code --threads <count>}: see {@link SourceBundle#withParallelism(int)}; with a single thread, all rules
+ *     share one pass over each file</li>
+ *     <li>{@code --streaming}: see {@link SourceBundle#withStreaming()}</li>
+ *     <li>{@code --limit <count>}: see {@link SourceBundle#withParsedFileLimit(int)}</li>
+ * </ul>
+ * <p>
+ * Example: {@code mvn -pl benchmarks exec:java -Dexec.mainClass=dev.bannmann.mandor.core.ScaleHarness
+ * -Dexec.args="--jdk --threads 8 --streaming"}
+ */
+public final class ScaleHarness
+{
+    private static final String RULES_PACKAGE = "dev.bannmann.mandor.core.rules";
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final long BYTES_PER_MEBIBYTE = 1024 * 1024;
+
+    private final SourceBundle sourceBundle = new SourceBundle();
+    private final List<Path> roots = new ArrayList<>();
+    private final List<FileSystem> zipFileSystems = new ArrayList<>();
+    private int threads = 1;
+
+    public static void main(String[] args) throws IOException
+    {
+        new ScaleHarness().run(args);
+    }
+
+    private void run(String[] args) throws IOException
+    {
+        try
+        {
+            parseArguments(args);
+            if (roots.isEmpty())
+            {
+                throw new IllegalArgumentException("Nothing to scan, use --source, --generate, --jdk or --zip");
+            }
+            measure();
+        }
+        finally
+        {
+            for (FileSystem fileSystem : zipFileSystems)
+            {
+                fileSystem.close();
+            }
+        }
+    }
+
+    private void parseArguments(String[] args) throws IOException
+    {
+        for (int i = 0; i < args.length; i++)
+        {
+            switch (args[i])
+            {
+                case "--source" -> roots.add(Path.of(args[++i]));
+                case "--generate" -> roots.add(generateCorpus(Integer.parseInt(args[++i])));
+                case "--jdk" -> addZipRoots(Path.of(System.getProperty("java.home"), "lib", "src.zip"));
+                case "--zip" -> addZipRoots(Path.of(args[++i]));
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--streaming" -> sourceBundle.withStreaming();
+                case "--limit" -> sourceBundle.withParsedFileLimit(Integer.parseInt(args[++i]));
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        sourceBundle.withParallelism(threads);
+    }
+
+    private Path generateCorpus(int fileCount) throws IOException
+    {
+        Path directory = Files.createTempDirectory("mandor-corpus");
+        CorpusGenerator.builder()
+            .fileCount(fileCount)
+            .build()
+            .generate(directory);
+        return directory;
+    }
+
+    /**
+     * Adds the module directories of a JDK source archive, e.g. {@code java.base}, as separate roots.
+     */
+    private void addZipRoots(Path zipFile) throws IOException
+    {
+        FileSystem fileSystem = FileSystems.newFileSystem(zipFile);
+        zipFileSystems.add(fileSystem);
+
+        for (Path rootDirectory : fileSystem.getRootDirectories())
+        {
+            try (Stream<Path> children = Files.list(rootDirectory))
+            {
+                children.filter(Files::isDirectory)
+                    .forEach(roots::add);
+            }
+        }
+    }
+
+    private void measure()
+    {
+        List<Supplier<SourceRule>> ruleFactories = SourceRuleProvider.load()
+            .customFrom(RULES_PACKAGE, Status.RECOMMENDED, Status.OPTIONAL, Status.EXPERIMENTAL)
+            .asFactories();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans()
+            .stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        roots.forEach(sourceBundle::importSources);
+        long imported = System.nanoTime();
+        Map<String, Integer> violationCounts = scan(ruleFactories);
+        long scanned = System.nanoTime();
+
+        long peakHeap = heapPools.stream()
+            .mapToLong(pool -> pool.getPeakUsage()
+                .getUsed())
+            .sum();
+        System.gc();
+        long retainedHeap = ManagementFactory.getMemoryMXBean()
+            .getHeapMemoryUsage()
+            .getUsed();
+
+        int fileCount = sourceBundle.getFileCount();
+        double totalSeconds = (scanned - start) / NANOS_PER_SECOND;
+        System.out.printf("Files:              %d%n", fileCount);
+        System.out.printf("Threads:            %d%n", threads);
+        System.out.printf("Import:             %.2f s%n", (imported - start) / NANOS_PER_SECOND);
+        System.out.printf("Scan:               %.2f s%n", (scanned - imported) / NANOS_PER_SECOND);
+        System.out.printf("Total:              %.2f s%n", totalSeconds);
+        System.out.printf("Throughput:         %.0f files/s%n", fileCount / totalSeconds);
+        System.out.printf("Peak heap:          %d MiB (sum of the peaks of all heap pools)%n",
+            peakHeap / BYTES_PER_MEBIBYTE);
+        System.out.printf("Heap after scan:    %d MiB%n", retainedHeap / BYTES_PER_MEBIBYTE);
+        System.out.println("Violations:");
+        violationCounts.forEach((rule, count) -> System.out.printf("  %-42s %d%n", rule, count));
+    }
+
+    private Map<String, Integer> scan(List<Supplier<SourceRule>> ruleFactories)
+    {
+        // Count the violations as they arrive instead of keeping them, like a reporter writing them out would
+        Map<String, Integer> result = new LinkedHashMap<>();
+        ViolationListener counter = violation -> result.merge(violation.rule(), 1, Integer::sum);
+        if (threads == 1)
+        {
+            List<SourceRule> rules = ruleFactories.stream()
+                .map(Supplier::get)
+                .toList();
+            rules.forEach(rule -> result.put(rule.getClass()
+                .getSimpleName(), 0));
+            sourceBundle.scanAll(rules, counter);
+        }
+        else
+        {
+            for (Supplier<SourceRule> ruleFactory : ruleFactories)
+            {
+                result.put(ruleFactory.get()
+                    .getClass()
+                    .getSimpleName(), 0);
+                sourceBundle.scan(ruleFactory, counter);
+            }
+        }
+        return result;
+    }
+}
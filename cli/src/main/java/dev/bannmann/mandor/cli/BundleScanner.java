@@ -0,0 +1,123 @@
+package dev.bannmann.mandor.cli;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import dev.bannmann.mandor.core.SourceBundle;
+import dev.bannmann.mandor.core.SourceRule;
+import dev.bannmann.mandor.core.SourceRule.Status;
+import dev.bannmann.mandor.core.SourceRuleProvider;
+import dev.bannmann.mandor.core.ViolationListener;
+
+/**
+ * Scans the source roots given in the {@link CliOptions} with the selected rules.
+ */
+final class BundleScanner
+{
+    private final CliOptions options;
+    private final SourceBundle sourceBundle;
+    private final List<Supplier<SourceRule>> ruleFactories;
+
+    /**
+     * @param ruleFactories the rules to scan with, see {@link #loadRuleFactories(CliOptions)}
+     */
+    public BundleScanner(CliOptions options, List<Supplier<SourceRule>> ruleFactories)
+    {
+        this.options = options;
+        this.ruleFactories = List.copyOf(ruleFactories);
+
+        sourceBundle = new SourceBundle().withParallelism(options.getThreads());
+        if (options.isStreaming())
+        {
+            sourceBundle.withStreaming();
+        }
+        if (options.getParsedFileLimit() > 0)
+        {
+            sourceBundle.withParsedFileLimit(options.getParsedFileLimit());
+        }
+        if (options.getCacheDirectory() != null)
+        {
+            sourceBundle.withResultCache(options.getCacheDirectory());
+        }
+        if (options.getViolationLimit() > 0)
+        {
+            sourceBundle.withViolationLimit(options.getViolationLimit());
+        }
+        options.getSourceRoots()
+            .forEach(sourceBundle::importSources);
+    }
+
+    /**
+     * @throws java.util.NoSuchElementException if no rules match the packages and statuses given in the options
+     */
+    public static List<Supplier<SourceRule>> loadRuleFactories(CliOptions options)
+    {
+        Status[] statuses = options.getStatuses()
+            .toArray(Status[]::new);
+        Status first = statuses[0];
+        Status[] more = List.of(statuses)
+            .subList(1, statuses.length)
+            .toArray(Status[]::new);
+
+        List<String> rulePackages = options.getRulePackages();
+        SourceRuleProvider.Loader loader = SourceRuleProvider.load()
+            .customFrom(rulePackages.get(0), first, more);
+        for (String rulePackage : rulePackages.subList(1, rulePackages.size()))
+        {
+            loader = loader.customFrom(rulePackage, first, more);
+        }
+        return loader.asFactories();
+    }
+
+    /**
+     * @see SourceBundle#refresh()
+     */
+    public int refresh()
+    {
+        return sourceBundle.refresh();
+    }
+
+    public int getFileCount()
+    {
+        return sourceBundle.getFileCount();
+    }
+
+    /**
+     * @return the number of violations passed to the listener
+     */
+    public int scan(ViolationListener listener)
+    {
+        var violationCount = new AtomicInteger();
+        ViolationListener countingListener = violation -> {
+            violationCount.incrementAndGet();
+            listener.onViolation(violation);
+        };
+
+        if (options.getThreads() == 1)
+        {
+            // All rules share one pass over each file
+            List<SourceRule> rules = ruleFactories.stream()
+                .map(Supplier::get)
+                .toList();
+            sourceBundle.scanAll(rules, countingListener);
+            return violationCount.get();
+        }
+
+        int violationLimit = options.getViolationLimit();
+        for (Supplier<SourceRule> ruleFactory : ruleFactories)
+        {
+            if (violationLimit > 0)
+            {
+                int remainingViolations = violationLimit - violationCount.get();
+                if (remainingViolations == 0)
+                {
+                    break;
+                }
+                sourceBundle.withViolationLimit(remainingViolations);
+            }
+            sourceBundle.scan(ruleFactory, countingListener);
+        }
+        return violationCount.get();
+    }
+}
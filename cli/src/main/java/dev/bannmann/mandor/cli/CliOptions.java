@@ -0,0 +1,188 @@
+package dev.bannmann.mandor.cli;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import lombok.Getter;
+
+import org.jspecify.annotations.Nullable;
+
+import dev.bannmann.mandor.core.SourceRule.Status;
+
+/**
+ * The options given on the command line, see {@link MandorCli}.
+ */
+@Getter
+final class CliOptions
+{
+    enum Mode
+    {
+        /**
+         * Scan once and exit.
+         */
+        SCAN,
+
+        /**
+         * Keep the bundle in memory and scan whenever a client asks for it, see {@link MandorDaemon}.
+         */
+        DAEMON,
+
+        /**
+         * Ask a running daemon to scan.
+         */
+        CONNECT,
+
+        /**
+         * Ask a running daemon to exit.
+         */
+        STOP
+    }
+
+    static final String DEFAULT_RULE_PACKAGE = "dev.bannmann.mandor.core.rules";
+
+    private Mode mode = Mode.SCAN;
+
+    private final List<Path> sourceRoots = new ArrayList<>();
+    private final List<String> rulePackages = new ArrayList<>();
+    private Set<Status> statuses = EnumSet.of(Status.RECOMMENDED);
+    private int threads = Runtime.getRuntime()
+        .availableProcessors();
+    private boolean streaming;
+    private int parsedFileLimit;
+    private int violationLimit;
+    private @Nullable Path cacheDirectory;
+    private OutputFormat format = OutputFormat.SARIF;
+    private @Nullable Path outputFile;
+    private @Nullable Path socketFile;
+
+    /**
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    public static CliOptions parse(String[] args)
+    {
+        var result = new CliOptions();
+        for (int i = 0; i < args.length; i++)
+        {
+            String option = args[i];
+            switch (option)
+            {
+                case "--rules" -> result.rulePackages.add(getValue(args, ++i, option));
+                case "--status" -> result.statuses = parseStatuses(getValue(args, ++i, option));
+                case "--threads" -> result.threads = parsePositive(option, getValue(args, ++i, option));
+                case "--streaming" -> result.streaming = true;
+                case "--parsed-file-limit" ->
+                    result.parsedFileLimit = parsePositive(option, getValue(args, ++i, option));
+                case "--cache" -> result.cacheDirectory = Path.of(getValue(args, ++i, option));
+                case "--max-violations" -> result.violationLimit = parsePositive(option, getValue(args, ++i, option));
+                case "--fail-fast" -> result.violationLimit = 1;
+                case "--format" -> result.format = parseFormat(getValue(args, ++i, option));
+                case "--output" -> result.outputFile = Path.of(getValue(args, ++i, option));
+                case "--daemon" -> result.mode = Mode.DAEMON;
+                case "--connect" -> result.mode = Mode.CONNECT;
+                case "--stop" -> result.mode = Mode.STOP;
+                case "--socket" -> result.socketFile = Path.of(getValue(args, ++i, option));
+                default ->
+                {
+                    if (option.startsWith("--"))
+                    {
+                        throw new IllegalArgumentException("Unknown option: " + option);
+                    }
+                    result.sourceRoots.add(Path.of(option));
+                }
+            }
+        }
+
+        if (result.mode != Mode.SCAN && result.socketFile == null)
+        {
+            throw new IllegalArgumentException("The daemon requires --socket");
+        }
+        boolean scansLocally = result.mode == Mode.SCAN || result.mode == Mode.DAEMON;
+        if (scansLocally && result.sourceRoots.isEmpty())
+        {
+            throw new IllegalArgumentException("No source directories given");
+        }
+        if (result.rulePackages.isEmpty())
+        {
+            result.rulePackages.add(DEFAULT_RULE_PACKAGE);
+        }
+        return result;
+    }
+
+    /**
+     * @return the Unix domain socket of the daemon
+     *
+     * @throws IllegalStateException if no socket was given, which {@link #parse(String[])} only allows for
+     * {@link Mode#SCAN}
+     */
+    public Path getDaemonSocket()
+    {
+        Path file = socketFile;
+        if (file == null)
+        {
+            throw new IllegalStateException();
+        }
+        return file;
+    }
+
+    private static String getValue(String[] args, int index, String option)
+    {
+        if (index == args.length)
+        {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static OutputFormat parseFormat(String value)
+    {
+        try
+        {
+            return OutputFormat.valueOf(value.toUpperCase(Locale.ROOT));
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("Unknown format: " + value, e);
+        }
+    }
+
+    private static Set<Status> parseStatuses(String value)
+    {
+        Set<Status> result = EnumSet.noneOf(Status.class);
+        Arrays.stream(value.split(","))
+            .map(String::trim)
+            .map(CliOptions::parseStatus)
+            .forEach(result::add);
+        if (result.isEmpty())
+        {
+            throw new IllegalArgumentException("No status given");
+        }
+        return result;
+    }
+
+    private static Status parseStatus(String value)
+    {
+        try
+        {
+            return Status.valueOf(value.toUpperCase(Locale.ROOT));
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("Unknown status: " + value, e);
+        }
+    }
+
+    private static int parsePositive(String option, String value)
+    {
+        int result = Integer.parseInt(value);
+        if (result <= 0)
+        {
+            throw new IllegalArgumentException(option + " must be positive, but was " + result);
+        }
+        return result;
+    }
+}
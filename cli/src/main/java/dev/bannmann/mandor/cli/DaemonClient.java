@@ -0,0 +1,115 @@
+package dev.bannmann.mandor.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import lombok.experimental.UtilityClass;
+
+import com.google.common.base.Splitter;
+import com.google.common.primitives.Ints;
+
+/**
+ * Sends requests to a running {@link MandorDaemon}.
+ */
+@UtilityClass
+class DaemonClient
+{
+    /**
+     * Asks the daemon to scan and writes the report it sends back to the output file given in the options, or to
+     * standard output.
+     *
+     * @return the exit code
+     */
+    public int scan(CliOptions options, PrintStream console) throws IOException
+    {
+        try (SocketChannel channel = connect(options))
+        {
+            BufferedReader reader = send(channel,
+                "%s %s".formatted(MandorDaemon.SCAN,
+                    options.getFormat()
+                        .name()));
+            String status = readStatus(reader);
+            List<String> parts = Splitter.on(' ')
+                .splitToList(status);
+            if (!parts.get(0)
+                .equals(MandorDaemon.OK))
+            {
+                console.println(status);
+                return MandorCli.EXIT_SCAN_FAILURE;
+            }
+
+            Integer violationCount = parts.size() == 3
+                ? Ints.tryParse(parts.get(1))
+                : null;
+            Integer fileCount = parts.size() == 3
+                ? Ints.tryParse(parts.get(2))
+                : null;
+            if (violationCount == null || fileCount == null || violationCount < 0 || fileCount < 0)
+            {
+                console.println("Malformed response from the daemon: " + status);
+                return MandorCli.EXIT_SCAN_FAILURE;
+            }
+
+            try (Writer output = MandorCli.openOutput(options.getOutputFile()))
+            {
+                reader.transferTo(output);
+            }
+
+            console.printf("%d violations in %d files%n", violationCount, fileCount);
+            return violationCount == 0
+                ? MandorCli.EXIT_SUCCESS
+                : MandorCli.EXIT_VIOLATIONS;
+        }
+    }
+
+    /**
+     * @return the exit code
+     */
+    public int stop(CliOptions options, PrintStream console) throws IOException
+    {
+        try (SocketChannel channel = connect(options))
+        {
+            String status = readStatus(send(channel, MandorDaemon.STOP));
+            if (!status.equals(MandorDaemon.OK))
+            {
+                console.println(status);
+                return MandorCli.EXIT_SCAN_FAILURE;
+            }
+            return MandorCli.EXIT_SUCCESS;
+        }
+    }
+
+    private SocketChannel connect(CliOptions options) throws IOException
+    {
+        return SocketChannel.open(UnixDomainSocketAddress.of(options.getDaemonSocket()));
+    }
+
+    /**
+     * @return a reader for the response
+     */
+    private BufferedReader send(SocketChannel channel, String request) throws IOException
+    {
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        writer.write(request + "\n");
+        writer.flush();
+
+        return new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+    }
+
+    private String readStatus(BufferedReader reader) throws IOException
+    {
+        String status = reader.readLine();
+        if (status == null)
+        {
+            throw new IOException("The daemon closed the connection without responding");
+        }
+        return status;
+    }
+}
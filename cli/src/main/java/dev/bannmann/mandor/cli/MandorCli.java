@@ -0,0 +1,184 @@
+package dev.bannmann.mandor.cli;
+
+import java.io.BufferedWriter;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+import org.jspecify.annotations.Nullable;
+
+import dev.bannmann.mandor.core.SourceRule;
+import dev.bannmann.mandor.core.UnprocessableSourceCodeException;
+import dev.bannmann.mandor.core.ViolationWriter;
+
+/**
+ * Scans source directories with the rules found on the class path and writes the violations in a machine-readable
+ * format.
+ * <p>
+ * Usage: {@code java [-Xmx<heap size>] -jar mandor.jar [options] <source directory>...}
+ * <p>
+ * Options:
+ * <ul>
+ *     <li>{@code --rules <package>}: use the rules from the given package; may be repeated. Defaults to the built-in
+ *     rules.</li>
+ *     <li>{@code --status <status>,...}: use only rules with one of the given {@linkplain
+ *     dev.bannmann.mandor.core.SourceRule.Status statuses}. Defaults to {@code recommended}.</li>
+ *     <li>{@code --threads <count>}: see {@link dev.bannmann.mandor.core.SourceBundle#withParallelism(int)}. Defaults
+ *     to the number of processors; with a single thread, all rules share one pass over each file.</li>
+ *     <li>{@code --streaming}: see {@link dev.bannmann.mandor.core.SourceBundle#withStreaming()}</li>
+ *     <li>{@code --parsed-file-limit <count>}: see
+ *     {@link dev.bannmann.mandor.core.SourceBundle#withParsedFileLimit(int)}</li>
+ *     <li>{@code --cache <directory>}: see {@link dev.bannmann.mandor.core.SourceBundle#withResultCache(Path)}</li>
+ *     <li>{@code --max-violations <count>}: stop after the given number of violations</li>
+ *     <li>{@code --fail-fast}: stop after the first violation</li>
+ *     <li>{@code --format sarif|ndjson}: the output format, defaults to {@code sarif}</li>
+ *     <li>{@code --output <file>}: write to the given file instead of standard output</li>
+ *     <li>{@code --daemon}: instead of scanning once, start a {@linkplain MandorDaemon daemon} that keeps the parsed
+ *     sources in memory and scans whenever a client connects</li>
+ *     <li>{@code --connect}: let a running daemon scan, using only the {@code --format} and {@code --output} options
+ *     given here; no source directories are needed</li>
+ *     <li>{@code --stop}: make a running daemon exit</li>
+ *     <li>{@code --socket <file>}: the Unix domain socket of the daemon, which only the user running the daemon can
+ *     connect to</li>
+ * </ul>
+ * <p>
+ * The exit code is 0 if no violations were found, 1 if there were violations, 2 if the arguments were invalid and 3 if
+ * the scan failed, e.g. because a rule could not process the source code or the daemon could not be reached.
+ */
+public final class MandorCli
+{
+    static final int EXIT_SUCCESS = 0;
+    static final int EXIT_VIOLATIONS = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_SCAN_FAILURE = 3;
+
+    private static final String USAGE = """
+        Usage: mandor [options] <source directory>...
+          --rules <package>            use the rules from the given package (repeatable)
+          --status <status>,...        recommended, optional and/or experimental (default: recommended)
+          --threads <count>            number of threads (default: number of processors)
+          --streaming                  release syntax trees once scanned
+          --parsed-file-limit <count>  keep at most the given number of syntax trees in memory
+          --cache <directory>          reuse results for unchanged files
+          --max-violations <count>     stop after the given number of violations
+          --fail-fast                  stop after the first violation
+          --format sarif|ndjson        output format (default: sarif)
+          --output <file>              write to the given file instead of standard output
+          --daemon                     keep running and scan whenever a client connects
+          --connect                    let a running daemon scan (no source directories needed)
+          --stop                       make a running daemon exit
+          --socket <file>              Unix domain socket of the daemon (only accessible to its owner)""";
+
+    private MandorCli()
+    {
+    }
+
+    public static void main(String[] args)
+    {
+        System.exit(run(args, System.err));
+    }
+
+    static int run(String[] args, PrintStream console)
+    {
+        CliOptions options;
+        try
+        {
+            options = CliOptions.parse(args);
+        }
+        catch (IllegalArgumentException e)
+        {
+            console.println(e.getMessage());
+            console.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        try
+        {
+            return switch (options.getMode())
+            {
+                case SCAN, DAEMON -> scanLocally(options, console);
+                case CONNECT -> DaemonClient.scan(options, console);
+                case STOP -> DaemonClient.stop(options, console);
+            };
+        }
+        catch (UnprocessableSourceCodeException | IOException | UncheckedIOException e)
+        {
+            console.println(e.getMessage());
+            return EXIT_SCAN_FAILURE;
+        }
+    }
+
+    private static int scanLocally(CliOptions options, PrintStream console) throws IOException
+    {
+        List<Supplier<SourceRule>> ruleFactories;
+        try
+        {
+            ruleFactories = BundleScanner.loadRuleFactories(options);
+        }
+        catch (NoSuchElementException e)
+        {
+            console.println("No rules match the given packages and statuses");
+            return EXIT_USAGE;
+        }
+
+        var scanner = new BundleScanner(options, ruleFactories);
+        if (options.getMode() == CliOptions.Mode.DAEMON)
+        {
+            new MandorDaemon(scanner, options.getDaemonSocket(), console).run();
+            return EXIT_SUCCESS;
+        }
+        return scan(scanner, options, console);
+    }
+
+    private static int scan(BundleScanner scanner, CliOptions options, PrintStream console)
+    {
+        int violationCount;
+        try (ViolationWriter writer = options.getFormat()
+            .createWriter(openOutput(options.getOutputFile())))
+        {
+            violationCount = scanner.scan(writer);
+        }
+
+        console.printf("%d violations in %d files%n", violationCount, scanner.getFileCount());
+        return violationCount == 0
+            ? EXIT_SUCCESS
+            : EXIT_VIOLATIONS;
+    }
+
+    /**
+     * @return a writer for the given file, or for standard output if none is given. Closing the latter only flushes it,
+     * so that standard output stays usable for the messages that follow.
+     */
+    static Writer openOutput(@Nullable Path outputFile)
+    {
+        if (outputFile == null)
+        {
+            return new FilterWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)))
+            {
+                @Override
+                public void close() throws IOException
+                {
+                    flush();
+                }
+            };
+        }
+
+        try
+        {
+            return Files.newBufferedWriter(outputFile);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package dev.bannmann.mandor.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Locale;
+
+import lombok.RequiredArgsConstructor;
+
+import com.google.common.base.Splitter;
+import dev.bannmann.labs.core.Nullness;
+import dev.bannmann.mandor.core.ViolationWriter;
+
+/**
+ * Keeps the source bundle in memory and scans it whenever a client asks for it, so that repeated scans neither pay for
+ * starting and warming up a JVM nor for parsing files that did not change. Requests are served one at a time.
+ * <p>
+ * The daemon listens on a Unix domain socket that only its owner may connect to. Each connection carries one request
+ * line, answered by one status line:
+ * <ul>
+ *     <li>{@code SCAN <format>}: picks up changed files and scans. The status line is
+ *     {@code OK <violation count> <file count>}, followed by the report until the daemon closes the connection.</li>
+ *     <li>{@code STOP}: makes the daemon exit after responding {@code OK}.</li>
+ * </ul>
+ * Failed requests are answered with {@code ERROR <message>}.
+ */
+@RequiredArgsConstructor
+final class MandorDaemon
+{
+    static final String SCAN = "SCAN";
+    static final String STOP = "STOP";
+    static final String OK = "OK";
+    static final String ERROR = "ERROR";
+
+    private final BundleScanner scanner;
+    private final Path socketFile;
+    private final PrintStream console;
+
+    public void run() throws IOException
+    {
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX))
+        {
+            bind(serverChannel);
+            try
+            {
+                console.printf("Listening on %s, %d files imported%n", socketFile, scanner.getFileCount());
+                boolean running = true;
+                while (running)
+                {
+                    try (SocketChannel channel = serverChannel.accept())
+                    {
+                        running = serve(channel);
+                    }
+                }
+            }
+            finally
+            {
+                Files.deleteIfExists(socketFile);
+            }
+        }
+    }
+
+    /**
+     * Binds the channel to the socket file, allowing only the owner to connect. Where the file system supports POSIX
+     * permissions, the socket is created in a private directory and restricted before it is moved into place, so that
+     * other users cannot connect in between.
+     */
+    private void bind(ServerSocketChannel serverChannel) throws IOException
+    {
+        if (Files.exists(socketFile))
+        {
+            throw new FileAlreadyExistsException(socketFile.toString(), null, "Is another daemon running?");
+        }
+
+        Path directory = Nullness.guaranteeNonNull(socketFile.toAbsolutePath()
+            .getParent());
+        if (!directory.getFileSystem()
+            .supportedFileAttributeViews()
+            .contains("posix"))
+        {
+            serverChannel.bind(UnixDomainSocketAddress.of(socketFile));
+            return;
+        }
+
+        Path privateDirectory = Files.createTempDirectory(directory,
+            ".mandor",
+            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        Path privateSocketFile = privateDirectory.resolve("socket");
+        try
+        {
+            serverChannel.bind(UnixDomainSocketAddress.of(privateSocketFile));
+            Files.setPosixFilePermissions(privateSocketFile, PosixFilePermissions.fromString("rw-------"));
+            Files.move(privateSocketFile, socketFile, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(privateSocketFile);
+            Files.delete(privateDirectory);
+        }
+    }
+
+    /**
+     * @return whether to keep running
+     */
+    private boolean serve(SocketChannel channel) throws IOException
+    {
+        var reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+        String request = reader.readLine();
+        if (request == null)
+        {
+            return true;
+        }
+
+        List<String> parts = Splitter.on(' ')
+            .splitToList(request);
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        switch (parts.get(0))
+        {
+            case SCAN -> scan(parts, writer);
+            case STOP -> writer.write(OK + "\n");
+            default -> writer.write(ERROR + " Unknown request: " + parts.get(0) + "\n");
+        }
+        writer.flush();
+
+        return !parts.get(0)
+            .equals(STOP);
+    }
+
+    private void scan(List<String> parts, Writer response) throws IOException
+    {
+        if (parts.size() != 2)
+        {
+            response.write(ERROR + " Expected " + SCAN + " <format>\n");
+            return;
+        }
+
+        // Buffer the report in a file only readable by the owner, as its status line depends on the whole scan
+        Path reportFile = Files.createTempFile("mandor", ".report");
+        try
+        {
+            String status = writeReport(parts.get(1), reportFile);
+            response.write(status + "\n");
+            if (status.startsWith(OK))
+            {
+                try (Reader report = Files.newBufferedReader(reportFile))
+                {
+                    report.transferTo(response);
+                }
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(reportFile);
+        }
+    }
+
+    /**
+     * @return the status line of the response
+     */
+    private String writeReport(String formatName, Path reportFile)
+    {
+        try
+        {
+            long start = System.nanoTime();
+            OutputFormat format = OutputFormat.valueOf(formatName.toUpperCase(Locale.ROOT));
+            int changedFileCount = scanner.refresh();
+
+            int violationCount;
+            try (ViolationWriter writer = format.createWriter(Files.newBufferedWriter(reportFile)))
+            {
+                violationCount = scanner.scan(writer);
+            }
+
+            console.printf("Scanned %d files (%d changed) in %d ms, found %d violations%n",
+                scanner.getFileCount(),
+                changedFileCount,
+                (System.nanoTime() - start) / 1_000_000,
+                violationCount);
+            return "%s %d %d".formatted(OK, violationCount, scanner.getFileCount());
+        }
+        catch (IOException | RuntimeException e)
+        {
+            // Keep serving, as the next request may well succeed, e.g. after fixing the code a rule choked on
+            console.println("Scan failed: " + e);
+            return ERROR + " " + String.valueOf(e.getMessage())
+                .replace('\n', ' ');
+        }
+    }
+}
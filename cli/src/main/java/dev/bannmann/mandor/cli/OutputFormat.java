@@ -0,0 +1,24 @@
+package dev.bannmann.mandor.cli;
+
+import java.io.Writer;
+import java.util.function.Function;
+
+import lombok.RequiredArgsConstructor;
+
+import dev.bannmann.mandor.core.NdjsonViolationWriter;
+import dev.bannmann.mandor.core.SarifViolationWriter;
+import dev.bannmann.mandor.core.ViolationWriter;
+
+@RequiredArgsConstructor
+enum OutputFormat
+{
+    SARIF(SarifViolationWriter::new),
+    NDJSON(NdjsonViolationWriter::new);
+
+    private final Function<Writer, ViolationWriter> writerFactory;
+
+    public ViolationWriter createWriter(Writer writer)
+    {
+        return writerFactory.apply(writer);
+    }
+}
@@ -0,0 +1,4 @@
+@NullMarked
+package dev.bannmann.mandor.cli;
+
+import org.jspecify.annotations.NullMarked;
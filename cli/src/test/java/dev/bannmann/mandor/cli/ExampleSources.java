@@ -0,0 +1,58 @@
+package dev.bannmann.mandor.cli;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import lombok.experimental.UtilityClass;
+
+import dev.bannmann.labs.core.Nullness;
+
+/**
+ * Writes small source files for scanning with the built-in rules.
+ */
+@UtilityClass
+class ExampleSources
+{
+    public static final Path CLEAN_FILE = Path.of("com/example/Clean.java");
+    public static final Path VIOLATING_FILE = Path.of("com/example/Checked.java");
+
+    /**
+     * Writes a file that none of the recommended rules object to.
+     */
+    public void writeCleanFile(Path root) throws IOException
+    {
+        write(root, CLEAN_FILE, """
+            package com.example;
+
+            class Clean
+            {
+            }
+            """);
+    }
+
+    /**
+     * Writes a file with one violation of {@code AssertStatementUsage}.
+     */
+    public void writeViolatingFile(Path root) throws IOException
+    {
+        write(root, VIOLATING_FILE, """
+            package com.example;
+
+            class Checked
+            {
+                void check(int value)
+                {
+                    assert value > 0;
+                }
+            }
+            """);
+    }
+
+    public void write(Path root, Path relativePath, String content) throws IOException
+    {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(Nullness.guaranteeNonNull(file.getParent()));
+        Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,160 @@
+package dev.bannmann.mandor.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class TestMandorCli
+{
+    private final TemporaryFiles temporaryFiles = new TemporaryFiles();
+    private final ByteArrayOutputStream consoleOutput = new ByteArrayOutputStream();
+    private final PrintStream console = new PrintStream(consoleOutput, true, UTF_8);
+
+    @AfterMethod(alwaysRun = true)
+    public void cleanUp() throws IOException
+    {
+        temporaryFiles.deleteAll();
+        consoleOutput.reset();
+    }
+
+    @Test
+    public void testCleanSourcesSucceed() throws IOException
+    {
+        Path sourceDirectory = temporaryFiles.createDirectory("mandor-sources");
+        ExampleSources.writeCleanFile(sourceDirectory);
+        Path outputFile = temporaryFiles.createFile("mandor-report", ".sarif");
+
+        int exitCode = MandorCli.run(new String[]{ "--output", outputFile.toString(), sourceDirectory.toString() },
+            console);
+
+        assertThat(exitCode).isEqualTo(MandorCli.EXIT_SUCCESS);
+        assertThat(getConsoleText()).contains("0 violations in 1 files");
+        assertThat(Files.readString(outputFile)).contains("\"version\":\"2.1.0\"")
+            .doesNotContain("\"ruleId\"");
+    }
+
+    @Test
+    public void testViolationsAreWrittenAsSarif() throws IOException
+    {
+        Path sourceDirectory = createSources();
+        Path outputFile = temporaryFiles.createFile("mandor-report", ".sarif");
+
+        int exitCode = MandorCli.run(new String[]{ "--output", outputFile.toString(), sourceDirectory.toString() },
+            console);
+
+        assertThat(exitCode).isEqualTo(MandorCli.EXIT_VIOLATIONS);
+        assertThat(getConsoleText()).contains("1 violations in 2 files");
+        assertThat(Files.readString(outputFile)).contains("\"ruleId\":\"AssertStatementUsage\"",
+            "{\"uri\":\"com/example/Checked.java\",\"uriBaseId\":\"ROOT0\"}");
+    }
+
+    @Test
+    public void testViolationsAreWrittenAsNdjson() throws IOException
+    {
+        Path sourceDirectory = createSources();
+        Path outputFile = temporaryFiles.createFile("mandor-report", ".ndjson");
+
+        int exitCode = MandorCli.run(new String[]{
+            "--format", "ndjson", "--threads", "1", "--output", outputFile.toString(), sourceDirectory.toString()
+        }, console);
+
+        assertThat(exitCode).isEqualTo(MandorCli.EXIT_VIOLATIONS);
+        List<String> lines = Files.readAllLines(outputFile);
+        assertThat(lines).singleElement()
+            .asString()
+            .startsWith("{\"rule\":\"AssertStatementUsage\",")
+            .contains("\"file\":\"com/example/Checked.java\",\"line\":7,");
+    }
+
+    @Test
+    public void testStandardOutputStaysOpenAfterReport() throws IOException
+    {
+        Path sourceDirectory = createSources();
+        var standardOutput = new ByteArrayOutputStream();
+        PrintStream originalStandardOutput = System.out;
+        System.setOut(new PrintStream(standardOutput, true, UTF_8));
+        try
+        {
+            MandorCli.run(new String[]{ "--format", "ndjson", sourceDirectory.toString() }, console);
+            System.out.println("Still open");
+        }
+        finally
+        {
+            System.setOut(originalStandardOutput);
+        }
+
+        assertThat(standardOutput.toString(UTF_8)).startsWith("{\"rule\":\"AssertStatementUsage\",")
+            .endsWith("Still open" + System.lineSeparator());
+    }
+
+    @Test
+    public void testMissingRulesAreUsageError() throws IOException
+    {
+        Path sourceDirectory = createSources();
+
+        int exitCode = MandorCli.run(new String[]{ "--rules", "com.example.missing", sourceDirectory.toString() },
+            console);
+
+        assertThat(exitCode).isEqualTo(MandorCli.EXIT_USAGE);
+        assertThat(getConsoleText()).contains("No rules match the given packages and statuses");
+    }
+
+    @DataProvider
+    public static Object[][] invalidArguments()
+    {
+        return new Object[][]{
+            new Object[]{ new String[]{}, "No source directories given" },
+            new Object[]{ new String[]{ "--unknown", "src" }, "Unknown option: --unknown" },
+            new Object[]{ new String[]{ "src", "--output" }, "Missing value for --output" },
+            new Object[]{ new String[]{ "--threads", "0", "src" }, "--threads must be positive, but was 0" },
+            new Object[]{ new String[]{ "--format", "xml", "src" }, "Unknown format: xml" },
+            new Object[]{ new String[]{ "--status", "stable", "src" }, "Unknown status: stable" },
+            new Object[]{ new String[]{ "--status", ",", "src" }, "No status given" },
+            new Object[]{ new String[]{ "--connect" }, "The daemon requires --socket" }
+        };
+    }
+
+    @Test(dataProvider = "invalidArguments")
+    public void testInvalidArgumentsAreUsageError(String[] args, String expectedMessage)
+    {
+        int exitCode = MandorCli.run(args, console);
+
+        assertThat(exitCode).isEqualTo(MandorCli.EXIT_USAGE);
+        assertThat(getConsoleText()).startsWith(expectedMessage)
+            .contains("Usage: mandor");
+    }
+
+    @Test
+    public void testUnreachableDaemonIsScanFailure() throws IOException
+    {
+        Path socketFile = temporaryFiles.createDirectory("mandor-daemon")
+            .resolve("missing.sock");
+
+        int exitCode = MandorCli.run(new String[]{ "--connect", "--socket", socketFile.toString() }, console);
+
+        assertThat(exitCode).isEqualTo(MandorCli.EXIT_SCAN_FAILURE);
+    }
+
+    private Path createSources() throws IOException
+    {
+        Path sourceDirectory = temporaryFiles.createDirectory("mandor-sources");
+        ExampleSources.writeCleanFile(sourceDirectory);
+        ExampleSources.writeViolatingFile(sourceDirectory);
+        return sourceDirectory;
+    }
+
+    private String getConsoleText()
+    {
+        return consoleOutput.toString(UTF_8);
+    }
+}
@@ -0,0 +1,339 @@
+package dev.bannmann.mandor.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+
+public class TestMandorDaemon
+{
+    private static final PrintStream CONSOLE = new PrintStream(OutputStream.nullOutputStream(), true, UTF_8);
+
+    private final TemporaryFiles temporaryFiles = new TemporaryFiles();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteTemporaryFiles() throws IOException
+    {
+        temporaryFiles.deleteAll();
+    }
+
+    @Test
+    public void testScanRequestIsAnsweredWithReport() throws Exception
+    {
+        try (var daemon = startDaemon(createSources()))
+        {
+            List<String> response = daemon.request("SCAN NDJSON");
+
+            assertThat(response).hasSize(2);
+            assertThat(response.get(0)).isEqualTo("OK 1 2");
+            assertThat(response.get(1)).startsWith("{\"rule\":\"AssertStatementUsage\",");
+        }
+    }
+
+    @Test
+    public void testClientWritesReport() throws Exception
+    {
+        try (var daemon = startDaemon(createSources()))
+        {
+            Path socketFile = daemon.socketFile();
+            Path outputFile = temporaryFiles.createFile("mandor-report", ".sarif");
+
+            int exitCode = MandorCli.run(new String[]{
+                "--connect", "--socket", socketFile.toString(), "--output", outputFile.toString()
+            }, CONSOLE);
+
+            assertThat(exitCode).isEqualTo(MandorCli.EXIT_VIOLATIONS);
+            assertThat(Files.readString(outputFile)).contains("\"ruleId\":\"AssertStatementUsage\"");
+        }
+    }
+
+    @Test
+    public void testScanPicksUpChangedFiles() throws Exception
+    {
+        Path sourceDirectory = createSources();
+        try (var daemon = startDaemon(sourceDirectory))
+        {
+            assertThat(daemon.request("SCAN NDJSON")).first()
+                .isEqualTo("OK 1 2");
+
+            ExampleSources.write(sourceDirectory, ExampleSources.VIOLATING_FILE, """
+                package com.example;
+
+                class Checked
+                {
+                }
+                """);
+            assertThat(daemon.request("SCAN NDJSON")).containsExactly("OK 0 2");
+
+            ExampleSources.writeViolatingFile(sourceDirectory);
+            ExampleSources.write(sourceDirectory, Path.of("com/example/Added.java"), """
+                package com.example;
+
+                class Added
+                {
+                }
+                """);
+            assertThat(daemon.request("SCAN NDJSON")).first()
+                .isEqualTo("OK 1 3");
+        }
+    }
+
+    @Test
+    public void testStopRequestEndsDaemon() throws Exception
+    {
+        var daemon = startDaemon(createSources());
+        Path socketFile = daemon.socketFile();
+
+        int exitCode = MandorCli.run(new String[]{ "--stop", "--socket", socketFile.toString() }, CONSOLE);
+
+        assertThat(exitCode).isEqualTo(MandorCli.EXIT_SUCCESS);
+        assertThat(daemon.exitCode()
+            .get(10, TimeUnit.SECONDS)).isEqualTo(MandorCli.EXIT_SUCCESS);
+        assertThat(socketFile).doesNotExist();
+    }
+
+    @DataProvider
+    public static Object[][] malformedRequests()
+    {
+        return new Object[][]{
+            new Object[]{ "", "ERROR Unknown request: " },
+            new Object[]{ "HELLO", "ERROR Unknown request: HELLO" },
+            new Object[]{ "SCAN", "ERROR Expected SCAN <format>" },
+            new Object[]{ "SCAN NDJSON /tmp/report.json", "ERROR Expected SCAN <format>" },
+            new Object[]{ "SCAN XML", "ERROR " }
+        };
+    }
+
+    @Test(dataProvider = "malformedRequests")
+    public void testMalformedRequestsAreRejected(String request, String expectedResponse) throws Exception
+    {
+        try (var daemon = startDaemon(createSources()))
+        {
+            List<String> response = daemon.request(request);
+
+            assertThat(response).singleElement()
+                .asString()
+                .startsWith(expectedResponse);
+            assertThat(daemon.request("SCAN NDJSON")).first()
+                .isEqualTo("OK 1 2");
+        }
+    }
+
+    @Test
+    public void testSocketIsOnlyAccessibleToOwner() throws Exception
+    {
+        try (var daemon = startDaemon(createSources()))
+        {
+            assertThat(Files.getPosixFilePermissions(daemon.socketFile())).containsExactlyInAnyOrder(
+                PosixFilePermission.OWNER_READ,
+                PosixFilePermission.OWNER_WRITE);
+        }
+    }
+
+    @Test
+    public void testSecondDaemonKeepsExistingSocket() throws Exception
+    {
+        Path sourceDirectory = createSources();
+        try (var daemon = startDaemon(sourceDirectory))
+        {
+            Path socketFile = daemon.socketFile();
+
+            int exitCode = MandorCli.run(new String[]{
+                "--daemon", "--socket", socketFile.toString(), sourceDirectory.toString()
+            }, CONSOLE);
+
+            assertThat(exitCode).isEqualTo(MandorCli.EXIT_SCAN_FAILURE);
+            assertThat(daemon.request("SCAN NDJSON")).first()
+                .isEqualTo("OK 1 2");
+        }
+    }
+
+    @DataProvider
+    public static Object[][] malformedStatusLines()
+    {
+        return new Object[][]{
+            new Object[]{ "OK" },
+            new Object[]{ "OK 1" },
+            new Object[]{ "OK 1 2 3" },
+            new Object[]{ "OK one 2" },
+            new Object[]{ "OK 1 -2" }
+        };
+    }
+
+    @Test(dataProvider = "malformedStatusLines")
+    public void testClientRejectsMalformedStatusLine(String statusLine) throws Exception
+    {
+        Path socketFile = temporaryFiles.createDirectory("md")
+            .resolve("d.sock");
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX))
+        {
+            server.bind(UnixDomainSocketAddress.of(socketFile));
+            CompletableFuture<Void> response = CompletableFuture.runAsync(() -> respond(server, statusLine));
+
+            int exitCode = MandorCli.run(new String[]{ "--connect", "--socket", socketFile.toString() }, CONSOLE);
+
+            assertThat(exitCode).isEqualTo(MandorCli.EXIT_SCAN_FAILURE);
+            response.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Plays the part of the daemon for a single request, answering it with the given status line.
+     */
+    private static void respond(ServerSocketChannel server, String statusLine)
+    {
+        try (SocketChannel channel = server.accept())
+        {
+            new BufferedReader(Channels.newReader(channel, UTF_8)).readLine();
+
+            Writer writer = Channels.newWriter(channel, UTF_8);
+            writer.write(statusLine + "\n");
+            writer.flush();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    public void testRepeatedScansKeepSymbolSolverCachesBounded() throws Exception
+    {
+        Path sourceDirectory = createSources();
+
+        // Telling the two kinds of XOR apart needs the symbol solver, which sets up a facade with caches for that
+        ExampleSources.write(sourceDirectory, Path.of("com/example/Flags.java"), """
+            package com.example;
+
+            class Flags
+            {
+                boolean toggle(boolean flag, boolean other)
+                {
+                    return flag ^ other;
+                }
+            }
+            """);
+        int previousFacadeCount = countSymbolSolverFacades();
+
+        try (var daemon = startDaemon(sourceDirectory, 2))
+        {
+            for (int i = 0; i < 20; i++)
+            {
+                assertThat(daemon.request("SCAN NDJSON")).first()
+                    .isEqualTo("OK 1 3");
+            }
+
+            // At most one per thread and one for sequential scans, regardless of the number of scans and rules
+            assertThat(countSymbolSolverFacades()).isBetween(previousFacadeCount + 1, previousFacadeCount + 3);
+        }
+    }
+
+    /**
+     * @return the number of facades kept in the global map of JavaParser's symbol solver, which are only discarded
+     * when the map is cleared
+     */
+    private static int countSymbolSolverFacades() throws IllegalAccessException
+    {
+        for (Field field : JavaParserFacade.class.getDeclaredFields())
+        {
+            if (Modifier.isStatic(field.getModifiers()) && Map.class.isAssignableFrom(field.getType()))
+            {
+                field.setAccessible(true);
+                synchronized (JavaParserFacade.class)
+                {
+                    return ((Map<?, ?>) field.get(null)).size();
+                }
+            }
+        }
+        throw new IllegalStateException("JavaParserFacade no longer keeps its instances in a map");
+    }
+
+    private Path createSources() throws IOException
+    {
+        Path sourceDirectory = temporaryFiles.createDirectory("mandor-sources");
+        ExampleSources.writeCleanFile(sourceDirectory);
+        ExampleSources.writeViolatingFile(sourceDirectory);
+        return sourceDirectory;
+    }
+
+    private RunningDaemon startDaemon(Path sourceDirectory) throws IOException, InterruptedException
+    {
+        return startDaemon(sourceDirectory, 1);
+    }
+
+    private RunningDaemon startDaemon(Path sourceDirectory, int threads) throws IOException, InterruptedException
+    {
+        // Unix domain socket paths are limited to about 100 characters, so keep the names short
+        Path socketFile = temporaryFiles.createDirectory("md")
+            .resolve("d.sock");
+        String[] args = {
+            "--daemon",
+            "--threads",
+            String.valueOf(threads),
+            "--socket",
+            socketFile.toString(),
+            sourceDirectory.toString()
+        };
+        CompletableFuture<Integer> exitCode = CompletableFuture.supplyAsync(() -> MandorCli.run(args, CONSOLE));
+
+        while (!Files.exists(socketFile))
+        {
+            assertThat(exitCode).isNotDone();
+            Thread.sleep(10);
+        }
+        return new RunningDaemon(socketFile, exitCode);
+    }
+
+    private record RunningDaemon(Path socketFile, CompletableFuture<Integer> exitCode) implements AutoCloseable
+    {
+        /**
+         * @return the lines of the response, i.e. the status line and the report, if any
+         */
+        public List<String> request(String request) throws IOException
+        {
+            try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socketFile)))
+            {
+                Writer writer = Channels.newWriter(channel, UTF_8);
+                writer.write(request + "\n");
+                writer.flush();
+
+                return new BufferedReader(Channels.newReader(channel, UTF_8)).lines()
+                    .toList();
+            }
+        }
+
+        @Override
+        public void close() throws IOException, ExecutionException, InterruptedException, TimeoutException
+        {
+            assertThat(request("STOP")).containsExactly("OK");
+            assertThat(exitCode.get(10, TimeUnit.SECONDS)).isEqualTo(MandorCli.EXIT_SUCCESS);
+        }
+    }
+}
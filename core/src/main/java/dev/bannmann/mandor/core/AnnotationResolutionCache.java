@@ -0,0 +1,264 @@
+package dev.bannmann.mandor.core;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.jspecify.annotations.Nullable;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.PackageDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.nodeTypes.NodeWithExtends;
+import com.github.javaparser.ast.nodeTypes.NodeWithImplements;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.mizool.core.exception.CodeInconsistencyException;
+import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Remembers the qualified names that annotation names resolved to. The result only depends on the package and the
+ * imports that could supply the name, so entries are shared between all compilation units that agree on these.
+ * <p>
+ * Names matching a type declared in the compilation unit itself are always resolved anew, as such a type may shadow an
+ * imported one. The same goes for annotations within types that have supertypes, as these may contribute member types.
+ * Names that cannot be resolved are remembered per compilation unit, so that further occurrences fail without
+ * consulting the symbol solver again.
+ */
+@NotThreadSafe
+final class AnnotationResolutionCache
+{
+    private record Key(String packageName, List<String> imports, String annotationName)
+    {
+    }
+
+    /**
+     * @param dependencies the paths consulted while resolving the name, see {@link RuleContext#getConsultedPaths()}
+     */
+    private record Entry(String qualifiedName, Set<Path> dependencies)
+    {
+    }
+
+    /**
+     * An import as far as it matters for the key.
+     *
+     * @param identifier the last identifier of the imported name
+     */
+    private record Import(String identifier, boolean onDemand, String description)
+    {
+    }
+
+    /**
+     * What a compilation unit contributes to the key, plus the names that failed to resolve in it. Does not refer to
+     * any nodes so that the unit can be garbage collected once it is released.
+     */
+    private record UnitScope(
+        String packageName, List<Import> imports, Set<String> declaredTypeNames, Set<String> unresolvableNames)
+    {
+    }
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private final Set<Path> consultedPaths;
+    private final @Nullable ScanStatistics statistics;
+
+    /**
+     * Keyed by identity, so that alternating between compilation units (e.g. a class and its package-info file) keeps
+     * the scope of each.
+     */
+    private final Cache<CompilationUnit, UnitScope> unitScopes = CacheBuilder.newBuilder()
+        .weakKeys()
+        .build();
+
+    /**
+     * @param consultedPaths the set in which the {@link RuleContext} collects the dependencies of the current file
+     * @param statistics receives the number of cache hits and misses, or {@code null} to skip counting
+     */
+    public AnnotationResolutionCache(Set<Path> consultedPaths, @Nullable ScanStatistics statistics)
+    {
+        this.consultedPaths = consultedPaths;
+        this.statistics = statistics;
+    }
+
+    public Optional<String> findQualifiedName(AnnotationExpr annotation)
+    {
+        if (mayInheritMemberTypes(annotation))
+        {
+            // Neither the key nor the scope captures which member types the supertypes contribute
+            return tryResolve(annotation);
+        }
+
+        UnitScope scope = getUnitScope(annotation);
+        String annotationName = annotation.getNameAsString();
+        if (scope.unresolvableNames()
+            .contains(annotationName))
+        {
+            return Optional.empty();
+        }
+
+        String firstIdentifier = getFirstIdentifier(annotationName);
+        if (scope.declaredTypeNames()
+            .contains(firstIdentifier))
+        {
+            return tryResolve(annotation, scope);
+        }
+
+        var key = new Key(scope.packageName(), getRelevantImports(scope, firstIdentifier), annotationName);
+        Entry entry = entries.get(key);
+        if (entry != null)
+        {
+            if (statistics != null)
+            {
+                statistics.recordAnnotationResolution(true);
+            }
+            consultedPaths.addAll(entry.dependencies());
+            return Optional.of(entry.qualifiedName());
+        }
+
+        if (statistics != null)
+        {
+            statistics.recordAnnotationResolution(false);
+        }
+
+        // Isolate the paths consulted for this name so that later hits can report them as well
+        Set<Path> previouslyConsultedPaths = Set.copyOf(consultedPaths);
+        consultedPaths.clear();
+        try
+        {
+            Optional<String> qualifiedName = tryResolve(annotation, scope);
+            qualifiedName.ifPresent(name -> entries.put(key, new Entry(name, Set.copyOf(consultedPaths))));
+            return qualifiedName;
+        }
+        finally
+        {
+            consultedPaths.addAll(previouslyConsultedPaths);
+        }
+    }
+
+    private static Optional<String> tryResolve(AnnotationExpr annotation, UnitScope scope)
+    {
+        Optional<String> result = tryResolve(annotation);
+        if (result.isEmpty())
+        {
+            scope.unresolvableNames()
+                .add(annotation.getNameAsString());
+        }
+        return result;
+    }
+
+    private static Optional<String> tryResolve(AnnotationExpr annotation)
+    {
+        try
+        {
+            return Optional.of(annotation.resolve()
+                .getQualifiedName());
+        }
+        catch (UnsolvedSymbolException e)
+        {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return whether the given node is enclosed by a type with supertypes, whose member types could shadow imports and
+     * types of the package
+     */
+    static boolean mayInheritMemberTypes(Node node)
+    {
+        return Nodes.findAncestor(node, Node.class, AnnotationResolutionCache::hasSupertypes)
+            .isPresent();
+    }
+
+    /**
+     * Only explicit supertypes count, as the implicit superclasses of enums and records do not declare member types.
+     */
+    private static boolean hasSupertypes(Node node)
+    {
+        if (node instanceof NodeWithExtends<?> declaration && declaration.getExtendedTypes()
+            .isNonEmpty())
+        {
+            return true;
+        }
+        if (node instanceof NodeWithImplements<?> declaration && declaration.getImplementedTypes()
+            .isNonEmpty())
+        {
+            return true;
+        }
+        return node instanceof ObjectCreationExpr objectCreation && objectCreation.getAnonymousClassBody()
+            .isPresent();
+    }
+
+    private UnitScope getUnitScope(AnnotationExpr annotation)
+    {
+        CompilationUnit compilationUnit = annotation.findCompilationUnit()
+            .orElseThrow(() -> new CodeInconsistencyException("Annotation " + annotation + " has no compilation unit"));
+
+        UnitScope result = unitScopes.getIfPresent(compilationUnit);
+        if (result == null)
+        {
+            String packageName = compilationUnit.getPackageDeclaration()
+                .map(PackageDeclaration::getNameAsString)
+                .orElse("");
+            List<Import> imports = compilationUnit.getImports()
+                .stream()
+                .map(AnnotationResolutionCache::toImport)
+                .toList();
+            Set<String> declaredTypeNames = compilationUnit.findAll(TypeDeclaration.class)
+                .stream()
+                .map(TypeDeclaration::getNameAsString)
+                .collect(Collectors.toSet());
+            result = new UnitScope(packageName, imports, declaredTypeNames, new HashSet<>());
+            unitScopes.put(compilationUnit, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the imports that could supply the given identifier: single imports of that name and all on-demand imports
+     */
+    private static List<String> getRelevantImports(UnitScope scope, String identifier)
+    {
+        return scope.imports()
+            .stream()
+            .filter(anImport -> anImport.onDemand() ||
+                                anImport.identifier()
+                                    .equals(identifier))
+            .map(Import::description)
+            .toList();
+    }
+
+    private static Import toImport(ImportDeclaration importDeclaration)
+    {
+        return new Import(importDeclaration.getName()
+            .getIdentifier(), importDeclaration.isAsterisk(), describe(importDeclaration));
+    }
+
+    private static String describe(ImportDeclaration importDeclaration)
+    {
+        String prefix = importDeclaration.isStatic()
+            ? "static "
+            : "";
+        String suffix = importDeclaration.isAsterisk()
+            ? ".*"
+            : "";
+        return prefix + importDeclaration.getNameAsString() + suffix;
+    }
+
+    private static String getFirstIdentifier(String name)
+    {
+        return Splitter.on('.')
+            .split(name)
+            .iterator()
+            .next();
+    }
+}
@@ -0,0 +1,130 @@
+package dev.bannmann.mandor.core;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.Nullable;
+
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.resolution.Navigator;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ListMultimap;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Resolves types declared in the source files of a {@link SourceBundle}, reusing their compilation units instead of
+ * parsing the files again. Names not found there are passed on to the fallback solver.
+ * <p>
+ * Like JavaParser's own {@code JavaParserTypeSolver}, this first looks for a file named after the type, e.g.
+ * {@code com/example/Foo.java} for {@code com.example.Foo} and {@code com.example.Foo.Bar}, and then searches all files of
+ * the package.
+ */
+@NotThreadSafe
+final class CompilationUnitTypeSolver implements TypeSolver
+{
+    private final ListMultimap<String, SourceFile> filesByTypeName;
+    private final ListMultimap<String, SourceFile> filesByPackageName;
+
+    /**
+     * Receives the relative path of each file searched for a type declaration.
+     */
+    private final Consumer<Path> dependencyRecorder;
+
+    private final TypeSolver fallback;
+
+    private @Nullable TypeSolver parent;
+
+    public CompilationUnitTypeSolver(
+        ListMultimap<String, SourceFile> filesByTypeName,
+        ListMultimap<String, SourceFile> filesByPackageName,
+        Consumer<Path> dependencyRecorder,
+        TypeSolver fallback)
+    {
+        this.filesByTypeName = filesByTypeName;
+        this.filesByPackageName = filesByPackageName;
+        this.dependencyRecorder = dependencyRecorder;
+        this.fallback = fallback;
+
+        fallback.setParent(this);
+    }
+
+    @Override
+    public @Nullable TypeSolver getParent()
+    {
+        return parent;
+    }
+
+    @Override
+    public void setParent(TypeSolver parent)
+    {
+        Objects.requireNonNull(parent);
+        if (this.parent != null)
+        {
+            throw new IllegalStateException("This TypeSolver already has a parent.");
+        }
+        if (parent == this)
+        {
+            throw new IllegalStateException("The parent of this TypeSolver cannot be itself.");
+        }
+        this.parent = parent;
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name)
+    {
+        Optional<TypeDeclaration<?>> typeDeclaration = findTypeDeclaration(name);
+        if (typeDeclaration.isEmpty())
+        {
+            return fallback.tryToSolveType(name);
+        }
+
+        return SymbolReference.solved(JavaParserFacade.get(this)
+            .getTypeDeclaration(typeDeclaration.get()));
+    }
+
+    private Optional<TypeDeclaration<?>> findTypeDeclaration(String name)
+    {
+        List<String> nameElements = Splitter.on('.')
+            .splitToList(name);
+
+        // Try the longest possible file name first, descending into nested types for the remainder of the name
+        for (int i = nameElements.size(); i > 0; i--)
+        {
+            String fileTypeName = String.join(".", nameElements.subList(0, i));
+            String packageName = String.join(".", nameElements.subList(0, i - 1));
+            String typeName = String.join(".", nameElements.subList(i - 1, nameElements.size()));
+
+            Optional<TypeDeclaration<?>> result = searchFiles(filesByTypeName.get(fileTypeName), typeName)
+                .or(() -> searchFiles(filesByPackageName.get(packageName), typeName));
+            if (result.isPresent())
+            {
+                return result;
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<TypeDeclaration<?>> searchFiles(List<SourceFile> candidates, String typeName)
+    {
+        for (SourceFile candidate : candidates)
+        {
+            // Also record unsuccessful searches: adding the type to that file would change the resolution result
+            dependencyRecorder.accept(candidate.getRelativePath());
+
+            Optional<TypeDeclaration<?>> result = Navigator.findType(candidate.getCompilationUnit(), typeName);
+            if (result.isPresent())
+            {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+}
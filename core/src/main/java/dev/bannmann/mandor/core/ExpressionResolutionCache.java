@@ -0,0 +1,145 @@
+package dev.bannmann.mandor.core;
+
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.javaparser.resolution.declarations.ResolvedValueDeclaration;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.google.common.cache.CacheBuilder;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Remembers the resolved types and declarations of expressions of one compilation unit, including failures to resolve
+ * them. Instances are attached to the syntax tree, so they are discarded along with it.
+ * <p>
+ * Each result is stored along with the paths consulted while resolving it. They are reported to the context again
+ * whenever the result is reused, so that the dependencies of each rule and scan are complete.
+ * <p>
+ * Resolved types and declarations keep using the type solver that produced them, so each {@link RuleContext} gets an
+ * instance of its own. As the contexts of several scanner threads may share a compilation unit, the map holding their
+ * instances is attached right after parsing and only read afterwards.
+ */
+@NotThreadSafe
+final class ExpressionResolutionCache
+{
+    private static final DataKey<ConcurrentMap<RuleContext, ExpressionResolutionCache>> INSTANCES = new DataKey<>()
+    {
+    };
+
+    /**
+     * @param dependencies the paths consulted while resolving, see {@link RuleContext#getConsultedPaths()}
+     */
+    private record Entry<T>(Optional<T> result, Set<Path> dependencies)
+    {
+    }
+
+    private final Map<Expression, Entry<ResolvedType>> types = new IdentityHashMap<>();
+    private final Map<NameExpr, Entry<ResolvedValueDeclaration>> declarations = new IdentityHashMap<>();
+    private final Set<Path> consultedPaths;
+
+    /**
+     * @param consultedPaths the set in which the {@link RuleContext} collects the dependencies of the current file
+     */
+    private ExpressionResolutionCache(Set<Path> consultedPaths)
+    {
+        this.consultedPaths = consultedPaths;
+    }
+
+    /**
+     * Prepares the given compilation unit for holding instances. Must be called before the unit is shared between
+     * threads.
+     */
+    public static void attach(CompilationUnit compilationUnit)
+    {
+        // Contexts are replaced whenever the bundle changes
+        ConcurrentMap<RuleContext, ExpressionResolutionCache> instances = CacheBuilder.newBuilder()
+            .weakKeys()
+            .<RuleContext, ExpressionResolutionCache>build()
+            .asMap();
+        compilationUnit.setData(INSTANCES, instances);
+    }
+
+    /**
+     * @param consultedPaths the set in which the context collects the dependencies of the current file
+     *
+     * @return the instance of the given context for the given compilation unit, which is only remembered if the unit
+     * was {@linkplain #attach(CompilationUnit) prepared}
+     */
+    public static ExpressionResolutionCache of(
+        CompilationUnit compilationUnit, RuleContext context, Set<Path> consultedPaths)
+    {
+        if (!compilationUnit.containsData(INSTANCES))
+        {
+            return new ExpressionResolutionCache(consultedPaths);
+        }
+        return compilationUnit.getData(INSTANCES)
+            .computeIfAbsent(context, key -> new ExpressionResolutionCache(consultedPaths));
+    }
+
+    public Optional<ResolvedType> findType(Expression expression)
+    {
+        return find(types, expression, ExpressionResolutionCache::resolveType);
+    }
+
+    public Optional<ResolvedValueDeclaration> findDeclaration(NameExpr nameExpr)
+    {
+        return find(declarations, nameExpr, ExpressionResolutionCache::resolveDeclaration);
+    }
+
+    private <K, T> Optional<T> find(Map<K, Entry<T>> entries, K key, Function<K, Optional<T>> resolution)
+    {
+        Entry<T> entry = entries.get(key);
+        if (entry != null)
+        {
+            consultedPaths.addAll(entry.dependencies());
+            return entry.result();
+        }
+
+        // Isolate the paths consulted for this key so that later hits can report them as well
+        Set<Path> previouslyConsultedPaths = Set.copyOf(consultedPaths);
+        consultedPaths.clear();
+        try
+        {
+            Optional<T> result = resolution.apply(key);
+            entries.put(key, new Entry<>(result, Set.copyOf(consultedPaths)));
+            return result;
+        }
+        finally
+        {
+            consultedPaths.addAll(previouslyConsultedPaths);
+        }
+    }
+
+    public static Optional<ResolvedType> resolveType(Expression expression)
+    {
+        return tryResolve(expression::calculateResolvedType);
+    }
+
+    public static Optional<ResolvedValueDeclaration> resolveDeclaration(NameExpr nameExpr)
+    {
+        return tryResolve(nameExpr::resolve);
+    }
+
+    private static <T> Optional<T> tryResolve(Supplier<T> resolution)
+    {
+        try
+        {
+            return Optional.of(resolution.get());
+        }
+        catch (UnsolvedSymbolException e)
+        {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package dev.bannmann.mandor.core;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.PackageDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+
+/**
+ * Determines which type an annotation name used in a compilation unit refers to, based only on its imports, the source
+ * files of its package and {@code java.lang}. Names that could refer to more than one type based on this information
+ * are left to the symbol solver.
+ * <p>
+ * Member types inherited from supertypes are not taken into account, as finding them would require resolving the
+ * supertypes. Neither are types of the own package that are not declared in a source file of the same name.
+ */
+final class ImportNameResolver
+{
+    private static final Set<String> JAVA_LANG_ANNOTATIONS = Stream.of(Deprecated.class,
+            FunctionalInterface.class,
+            Override.class,
+            SafeVarargs.class,
+            SuppressWarnings.class)
+        .map(Class::getSimpleName)
+        .collect(Collectors.toUnmodifiableSet());
+
+    private final String packagePrefix;
+    private final Predicate<String> packageHasSourceFile;
+    private final Predicate<String> typeExists;
+
+    /**
+     * Names that may refer to a type other than the one an import or the package would suggest.
+     */
+    private final Set<String> shadowingNames = new HashSet<>();
+
+    /**
+     * The qualified names of single-type imports, keyed by simple name.
+     */
+    private final Map<String, String> singleTypeImports = new HashMap<>();
+
+    private boolean hasOnDemandImports;
+
+    /**
+     * @param packageHasSourceFile tells whether the package of the compilation unit has a source file for the given
+     * simple type name
+     * @param typeExists tells whether a type of the given qualified name exists
+     */
+    public ImportNameResolver(
+        CompilationUnit compilationUnit, Predicate<String> packageHasSourceFile, Predicate<String> typeExists)
+    {
+        this.packagePrefix = compilationUnit.getPackageDeclaration()
+            .map(PackageDeclaration::getNameAsString)
+            .map(packageName -> packageName + ".")
+            .orElse("");
+        this.packageHasSourceFile = packageHasSourceFile;
+        this.typeExists = typeExists;
+
+        compilationUnit.findAll(TypeDeclaration.class)
+            .forEach(typeDeclaration -> shadowingNames.add(typeDeclaration.getNameAsString()));
+
+        for (ImportDeclaration importDeclaration : compilationUnit.getImports())
+        {
+            if (importDeclaration.isAsterisk())
+            {
+                hasOnDemandImports = true;
+            }
+            else if (importDeclaration.isStatic())
+            {
+                // A static import may supply a member type
+                shadowingNames.add(importDeclaration.getName()
+                    .getIdentifier());
+            }
+            else
+            {
+                singleTypeImports.put(importDeclaration.getName()
+                    .getIdentifier(), importDeclaration.getNameAsString());
+            }
+        }
+    }
+
+    /**
+     * @param name the simple or qualified name of an annotation as written in the compilation unit
+     *
+     * @return the qualified name of the annotation type, or an empty optional if it cannot be told without the symbol
+     * solver
+     */
+    public Optional<String> resolve(String name)
+    {
+        int separatorIndex = name.indexOf('.');
+        String firstIdentifier = separatorIndex < 0
+            ? name
+            : name.substring(0, separatorIndex);
+        String remainder = name.substring(firstIdentifier.length());
+
+        if (shadowingNames.contains(firstIdentifier))
+        {
+            return Optional.empty();
+        }
+
+        String importedName = singleTypeImports.get(firstIdentifier);
+        if (importedName != null)
+        {
+            return Optional.of(importedName + remainder);
+        }
+
+        if (packageHasSourceFile.test(firstIdentifier))
+        {
+            return Optional.of(packagePrefix + name);
+        }
+
+        if (separatorIndex >= 0 && Character.isLowerCase(firstIdentifier.charAt(0)) && typeExists.test(name))
+        {
+            // By convention, only package names start with a lowercase letter, so the existing type is the one meant
+            return Optional.of(name);
+        }
+
+        if (!hasOnDemandImports && JAVA_LANG_ANNOTATIONS.contains(name))
+        {
+            return Optional.of("java.lang." + name);
+        }
+
+        return Optional.empty();
+    }
+}
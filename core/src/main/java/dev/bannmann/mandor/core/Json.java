@@ -0,0 +1,32 @@
+package dev.bannmann.mandor.core;
+
+import lombok.experimental.UtilityClass;
+
+import com.google.common.escape.Escaper;
+import com.google.common.escape.Escapers;
+
+/**
+ * Helps writing JSON without a full JSON library, as all documents written by mandor have a fixed structure.
+ */
+@UtilityClass
+class Json
+{
+    private static final Escaper ESCAPER = Escapers.builder()
+        .addEscape('"', "\\\"")
+        .addEscape('\\', "\\\\")
+        .addEscape('\n', "\\n")
+        .addEscape('\r', "\\r")
+        .addEscape('\t', "\\t")
+        .setSafeRange(' ', Character.MAX_VALUE)
+        .setUnsafeReplacement(" ")
+        .build();
+
+    /**
+     * Escapes the given text for use within a JSON string literal. Control characters other than line breaks and tabs
+     * are replaced by spaces.
+     */
+    public String escape(String text)
+    {
+        return ESCAPER.escape(text);
+    }
+}
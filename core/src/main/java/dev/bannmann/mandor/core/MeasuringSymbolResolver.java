@@ -0,0 +1,84 @@
+package dev.bannmann.mandor.core;
+
+import java.util.function.Supplier;
+
+import org.jspecify.annotations.Nullable;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.resolution.SymbolResolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.types.ResolvedType;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Records resolution requests in {@link ScanStatistics} and as spans of a {@link ScanTracer}. Requests issued while
+ * answering another one count as part of the outer request.
+ */
+@NotThreadSafe
+final class MeasuringSymbolResolver implements SymbolResolver
+{
+    private final SymbolResolver delegate;
+    private final @Nullable ScanStatistics statistics;
+    private final @Nullable ScanTracer tracer;
+
+    private int depth;
+
+    public MeasuringSymbolResolver(
+        SymbolResolver delegate, @Nullable ScanStatistics statistics, @Nullable ScanTracer tracer)
+    {
+        this.delegate = delegate;
+        this.statistics = statistics;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public <T> T resolveDeclaration(Node node, Class<T> resultClass)
+    {
+        return measure(() -> delegate.resolveDeclaration(node, resultClass));
+    }
+
+    @Override
+    public <T> T toResolvedType(Type javaparserType, Class<T> resultClass)
+    {
+        return measure(() -> delegate.toResolvedType(javaparserType, resultClass));
+    }
+
+    @Override
+    public ResolvedType calculateType(Expression expression)
+    {
+        return measure(() -> delegate.calculateType(expression));
+    }
+
+    @Override
+    public ResolvedReferenceTypeDeclaration toTypeDeclaration(Node node)
+    {
+        return measure(() -> delegate.toTypeDeclaration(node));
+    }
+
+    private <T> T measure(Supplier<T> request)
+    {
+        long start = System.nanoTime();
+        depth++;
+        try
+        {
+            return request.get();
+        }
+        finally
+        {
+            depth--;
+            if (depth == 0)
+            {
+                if (statistics != null)
+                {
+                    statistics.recordResolution(System.nanoTime() - start);
+                }
+                if (tracer != null)
+                {
+                    tracer.record(ScanTracer.RESOLUTION, "resolve", null, start);
+                }
+            }
+        }
+    }
+}
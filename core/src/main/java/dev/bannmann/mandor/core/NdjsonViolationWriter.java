@@ -0,0 +1,61 @@
+package dev.bannmann.mandor.core;
+
+import java.io.File;
+import java.io.Writer;
+import java.nio.file.Path;
+
+/**
+ * Writes violations as newline-delimited JSON, with one object per line. Each object holds the {@code rule}, the
+ * absolute path of the {@code root} directory the file was imported from, the {@code file} path relative to it, the
+ * formatted {@code message} and, unless the violation concerns the file as a whole, the {@code line} and
+ * {@code column}. Paths use forward slashes on all platforms.
+ */
+public final class NdjsonViolationWriter extends ViolationWriter
+{
+    public NdjsonViolationWriter(Writer writer)
+    {
+        super(writer);
+    }
+
+    public NdjsonViolationWriter(Path file)
+    {
+        this(open(file));
+    }
+
+    @Override
+    protected String formatViolation(Violation violation)
+    {
+        var result = new StringBuilder();
+        result.append("{\"rule\":\"")
+            .append(Json.escape(violation.rule()))
+            .append("\",\"root\":\"")
+            .append(Json.escape(toJsonPath(violation.root()
+                .toAbsolutePath())))
+            .append("\",\"file\":\"")
+            .append(Json.escape(toJsonPath(violation.file())))
+            .append('"');
+        if (violation.hasPosition())
+        {
+            result.append(",\"line\":")
+                .append(violation.line())
+                .append(",\"column\":")
+                .append(violation.column());
+        }
+        result.append(",\"message\":\"")
+            .append(Json.escape(violation.getText()))
+            .append("\"}\n");
+        return result.toString();
+    }
+
+    @Override
+    protected String getEnd()
+    {
+        return "";
+    }
+
+    private static String toJsonPath(Path path)
+    {
+        return path.toString()
+            .replace(File.separatorChar, '/');
+    }
+}
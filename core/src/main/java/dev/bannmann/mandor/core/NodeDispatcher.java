@@ -0,0 +1,106 @@
+package dev.bannmann.mandor.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.Nullable;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Walks a syntax tree once, handing each node to the {@linkplain NodeHandlers handlers} of all rules interested in it.
+ * Suppressions are tracked separately for each rule, just like with a rule that walks the tree on its own.
+ */
+@NotThreadSafe
+final class NodeDispatcher
+{
+    private record Handler(SourceRule rule, Consumer<Node> action)
+    {
+    }
+
+    private final List<SourceRule> rules;
+    private final @Nullable ScanStatistics statistics;
+    private final Map<Class<? extends Node>, List<Handler>> handlersByNodeClass = new HashMap<>();
+
+    public NodeDispatcher(List<SourceRule> rules)
+    {
+        this(rules, null);
+    }
+
+    /**
+     * @param statistics receives the time spent in the handlers of each rule, or {@code null} to skip measuring
+     */
+    public NodeDispatcher(List<SourceRule> rules, @Nullable ScanStatistics statistics)
+    {
+        this.rules = List.copyOf(rules);
+        this.statistics = statistics;
+    }
+
+    public void traverse(Node node)
+    {
+        if (!isSuppressibleScope(node))
+        {
+            visit(node);
+            return;
+        }
+
+        var scope = (NodeWithAnnotations<?>) node;
+        Runnable action = () -> visit(node);
+        for (SourceRule rule : rules)
+        {
+            Runnable innerAction = action;
+            action = () -> rule.trackSuppressibleScope(scope, innerAction);
+        }
+        action.run();
+    }
+
+    private boolean isSuppressibleScope(Node node)
+    {
+        return node instanceof ClassOrInterfaceDeclaration ||
+               node instanceof FieldDeclaration ||
+               node instanceof ConstructorDeclaration ||
+               node instanceof MethodDeclaration;
+    }
+
+    private void visit(Node node)
+    {
+        for (Handler handler : handlersByNodeClass.computeIfAbsent(node.getClass(), this::collectHandlers))
+        {
+            if (statistics == null)
+            {
+                handler.action()
+                    .accept(node);
+            }
+            else
+            {
+                long start = System.nanoTime();
+                handler.action()
+                    .accept(node);
+                statistics.recordRuleScan(handler.rule(), System.nanoTime() - start);
+            }
+        }
+
+        for (Node child : node.getChildNodes())
+        {
+            traverse(child);
+        }
+    }
+
+    private List<Handler> collectHandlers(Class<? extends Node> nodeClass)
+    {
+        return rules.stream()
+            .flatMap(rule -> rule.getNodeHandlers()
+                .getHandlers(nodeClass)
+                .stream()
+                .map(action -> new Handler(rule, action)))
+            .toList();
+    }
+}
@@ -0,0 +1,57 @@
+package dev.bannmann.mandor.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import com.github.javaparser.ast.Node;
+
+/**
+ * Collects the node types a {@link SourceRule} is interested in, together with the code to run for each matching node.
+ *
+ * @see SourceRule#registerHandlers(NodeHandlers)
+ */
+@NoArgsConstructor(access = AccessLevel.PACKAGE)
+public final class NodeHandlers
+{
+    private record Registration<N extends Node>(Class<N> nodeClass, Consumer<? super N> handler)
+    {
+        public boolean appliesTo(Class<? extends Node> candidateClass)
+        {
+            return nodeClass.isAssignableFrom(candidateClass);
+        }
+
+        public void handle(Node node)
+        {
+            handler.accept(nodeClass.cast(node));
+        }
+    }
+
+    private final List<Registration<?>> registrations = new ArrayList<>();
+
+    /**
+     * Registers a handler for nodes of the given class, including subclasses. Handlers are invoked before the children
+     * of the node are visited.
+     */
+    public <N extends Node> NodeHandlers on(Class<N> nodeClass, Consumer<? super N> handler)
+    {
+        registrations.add(new Registration<>(nodeClass, handler));
+        return this;
+    }
+
+    boolean isEmpty()
+    {
+        return registrations.isEmpty();
+    }
+
+    List<Consumer<Node>> getHandlers(Class<? extends Node> nodeClass)
+    {
+        return registrations.stream()
+            .filter(registration -> registration.appliesTo(nodeClass))
+            .<Consumer<Node>>map(registration -> registration::handle)
+            .toList();
+    }
+}
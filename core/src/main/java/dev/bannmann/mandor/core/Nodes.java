@@ -1,5 +1,6 @@
 package dev.bannmann.mandor.core;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 
@@ -16,7 +17,6 @@ import com.github.javaparser.ast.expr.NormalAnnotationExpr;
 import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
 import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
-import com.github.javaparser.resolution.UnsolvedSymbolException;
 import dev.bannmann.labs.annotations.SuppressWarningsRationale;
 import dev.bannmann.labs.core.StreamExtras;
 
@@ -78,42 +78,41 @@ public class Nodes
         NodeWithAnnotations<?> nodeWithAnnotations,
         String warningName)
     {
-        var annotationExprOptional = nodeWithAnnotations.getAnnotationByClass(SuppressWarnings.class);
-        if (annotationExprOptional.isEmpty())
-        {
-            return Optional.empty();
-        }
+        return nodeWithAnnotations.getAnnotationByClass(SuppressWarnings.class)
+            .filter(annotationExpr -> getSuppressedWarnings(annotationExpr).contains(warningName));
+    }
 
-        var annotationExpr = annotationExprOptional.get();
-        if (annotationExpr instanceof NormalAnnotationExpr normalAnnotationExpr &&
-            normalAnnotationExpr.getPairs()
+    /**
+     * @return the warning names listed in the given {@code @SuppressWarnings} annotation
+     */
+    public List<String> getSuppressedWarnings(AnnotationExpr annotationExpr)
+    {
+        if (annotationExpr instanceof NormalAnnotationExpr normalAnnotationExpr)
+        {
+            return normalAnnotationExpr.getPairs()
                 .stream()
                 .filter(memberValuePair -> memberValuePair.getNameAsString()
                     .equals("value"))
                 .map(MemberValuePair::getValue)
                 .reduce(StreamExtras.atMostOneThrowing(() -> new UnprocessableSourceCodeException(
                     "Unexpected syntax in @SuppressWarnings annotation")))
-                .filter(expression -> suppressesWarning(expression, warningName))
-                .isPresent())
-        {
-            return Optional.of(annotationExpr);
+                .map(Nodes::getWarningNames)
+                .orElse(List.of());
         }
 
-        if (annotationExpr instanceof SingleMemberAnnotationExpr singleMemberAnnotationExpr &&
-            suppressesWarning(singleMemberAnnotationExpr.getMemberValue(), warningName))
+        if (annotationExpr instanceof SingleMemberAnnotationExpr singleMemberAnnotationExpr)
         {
-            return Optional.of(annotationExpr);
+            return getWarningNames(singleMemberAnnotationExpr.getMemberValue());
         }
 
-        return Optional.empty();
+        return List.of();
     }
 
-    private static boolean suppressesWarning(Expression expression, String name)
+    private static List<String> getWarningNames(Expression expression)
     {
         if (expression instanceof StringLiteralExpr stringLiteralExpr)
         {
-            return stringLiteralExpr.getValue()
-                .equals(name);
+            return List.of(stringLiteralExpr.getValue());
         }
         if (expression instanceof ArrayInitializerExpr arrayInitializerExpr)
         {
@@ -121,25 +120,34 @@ public class Nodes
                 .stream()
                 .map(expression1 -> expression1.asStringLiteralExpr()
                     .getValue())
-                .anyMatch(value -> value.equals(name));
+                .toList();
         }
         throw new UnprocessableSourceCodeException("Unexpected syntax in @SuppressWarnings annotation");
     }
 
     public static String getQualifiedName(AnnotationExpr annotation, RuleContext context)
     {
+        var event = new ResolutionEvent();
+        event.begin();
         try
         {
-            return annotation.resolve()
-                .getQualifiedName();
+            String qualifiedName = context.findQualifiedName(annotation)
+                .orElseThrow(() -> new UnprocessableSourceCodeException(
+                    "Cannot resolve qualified name for annotation %s used by %s in %s".formatted(
+                        annotation.getNameAsString(),
+                        obtainEnclosingTopLevelTypeName(annotation),
+                        context.getCodeLocation(annotation))));
+            event.qualifiedName = qualifiedName;
+            return qualifiedName;
         }
-        catch (UnsolvedSymbolException e)
+        finally
         {
-            throw new UnprocessableSourceCodeException(
-                "Cannot resolve qualified name for annotation %s used by %s in %s".formatted(annotation.getNameAsString(),
-                    obtainEnclosingTopLevelTypeName(annotation),
-                    context.getCodeLocation(annotation)),
-                e);
+            event.end();
+            if (event.shouldCommit())
+            {
+                event.annotation = annotation.getNameAsString();
+                event.commit();
+            }
         }
     }
 }
@@ -0,0 +1,145 @@
+package dev.bannmann.mandor.core;
+
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.PackageDeclaration;
+import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
+
+/**
+ * The nullness defaults declared via jSpecify's {@code @NullMarked} and {@code @NullUnmarked} in a {@link SourceBundle}.
+ * Package defaults are determined once per package, merging the package-info files of all roots. The scopes declared
+ * within a compilation unit are determined in a single walk of its syntax tree.
+ *
+ * @see RuleContext#getNullness(Node)
+ */
+public final class NullnessModel
+{
+    public enum Nullness
+    {
+        NULL_MARKED,
+        NULL_UNMARKED,
+        UNSPECIFIED,
+
+        /**
+         * Both annotations are present, e.g. in the package-info files of different roots.
+         */
+        CONFLICTING
+    }
+
+    /**
+     * A declaration annotated with {@code @NullMarked} or {@code @NullUnmarked}.
+     */
+    public record Scope(Node declaration, Nullness nullness)
+    {
+    }
+
+    private final Function<Path, Stream<CompilationUnit>> lookup;
+    private final Map<Path, Nullness> packageNullnessByPath = new ConcurrentHashMap<>();
+
+    NullnessModel(Function<Path, Stream<CompilationUnit>> lookup)
+    {
+        this.lookup = lookup;
+    }
+
+    /**
+     * @param packageInfoPath the relative path of the package-info files to consider
+     */
+    Nullness getPackageNullness(Path packageInfoPath)
+    {
+        return packageNullnessByPath.computeIfAbsent(packageInfoPath, this::determinePackageNullness);
+    }
+
+    /**
+     * Discards the nullness of the given package, e.g. because one of its package-info files changed.
+     */
+    void forgetPackage(Path packageInfoPath)
+    {
+        packageNullnessByPath.remove(packageInfoPath);
+    }
+
+    private Nullness determinePackageNullness(Path packageInfoPath)
+    {
+        boolean nullMarked = false;
+        boolean nullUnmarked = false;
+        for (PackageDeclaration packageDeclaration : lookup.apply(packageInfoPath)
+            .flatMap(packageInfoUnit -> packageInfoUnit.getPackageDeclaration()
+                .stream())
+            .toList())
+        {
+            nullMarked = nullMarked || packageDeclaration.isAnnotationPresent(NullMarked.class);
+            nullUnmarked = nullUnmarked || packageDeclaration.isAnnotationPresent(NullUnmarked.class);
+        }
+        return combine(nullMarked, nullUnmarked);
+    }
+
+    /**
+     * Determines the innermost scope enclosing each node of the given compilation unit, if any. Nodes outside of all
+     * scopes are not contained in the result.
+     */
+    static Map<Node, Scope> determineScopes(CompilationUnit compilationUnit)
+    {
+        Map<Node, Scope> result = new IdentityHashMap<>();
+        compilationUnit.walk(node -> {
+            Scope scope = findDeclaredScope(node).orElse(findInheritedScope(node, result));
+            if (scope != null)
+            {
+                result.put(node, scope);
+            }
+        });
+        return result;
+    }
+
+    private static Optional<Scope> findDeclaredScope(Node node)
+    {
+        if (node instanceof NodeWithAnnotations<?> nodeWithAnnotations)
+        {
+            Nullness nullness = combine(nodeWithAnnotations.isAnnotationPresent(NullMarked.class),
+                nodeWithAnnotations.isAnnotationPresent(NullUnmarked.class));
+            if (nullness != Nullness.UNSPECIFIED)
+            {
+                return Optional.of(new Scope(node, nullness));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static @Nullable Scope findInheritedScope(Node node, Map<Node, Scope> scopes)
+    {
+        Node parent = node.getParentNode()
+            .orElse(null);
+        if (parent == null)
+        {
+            return null;
+        }
+        return scopes.get(parent);
+    }
+
+    private static Nullness combine(boolean nullMarked, boolean nullUnmarked)
+    {
+        if (nullMarked && nullUnmarked)
+        {
+            return Nullness.CONFLICTING;
+        }
+        if (nullMarked)
+        {
+            return Nullness.NULL_MARKED;
+        }
+        if (nullUnmarked)
+        {
+            return Nullness.NULL_UNMARKED;
+        }
+        return Nullness.UNSPECIFIED;
+    }
+}
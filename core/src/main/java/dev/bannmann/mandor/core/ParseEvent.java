@@ -0,0 +1,22 @@
+package dev.bannmann.mandor.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.bannmann.mandor.Parse")
+@Label("Parse Source File")
+@Description("Parsing a source file into a compilation unit")
+@Category("Mandor")
+@StackTrace(false)
+final class ParseEvent extends Event
+{
+    @Label("File")
+    String file = "";
+
+    @Label("Node Count")
+    long nodeCount;
+}
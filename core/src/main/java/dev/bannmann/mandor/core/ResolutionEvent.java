@@ -0,0 +1,24 @@
+package dev.bannmann.mandor.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.bannmann.mandor.Resolution")
+@Label("Resolve Annotation")
+@Description("Resolving the qualified name of an annotation")
+@Category("Mandor")
+@StackTrace(false)
+final class ResolutionEvent extends Event
+{
+    @Label("Annotation")
+    @Description("The annotation name as written in the source code")
+    String annotation = "";
+
+    @Label("Qualified Name")
+    @Description("The resolved name, or empty if resolution failed")
+    String qualifiedName = "";
+}
@@ -0,0 +1,392 @@
+package dev.bannmann.mandor.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import lombok.RequiredArgsConstructor;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+/**
+ * Stores the violations a rule reported for a source file in a directory, one file per rule and source file.
+ * <p>
+ * An entry is found via the rule class, its {@linkplain SourceRule#getVersion() version}, the version of Mandor and the
+ * path and content hash of the source file. It also records the hashes of all files the rule
+ * {@linkplain RuleContext#lookup(Path) looked up} or resolved types from, and is only used while these still match.
+ * <p>
+ * Entries whose source file, rule or dependencies changed are never found again. Because a scan does not necessarily
+ * look at every entry, such entries are not deleted right away, but once their last modification time, which is
+ * renewed whenever an entry is used, exceeds the maximum age.
+ */
+@RequiredArgsConstructor
+final class ResultCache
+{
+    private static final int FORMAT_VERSION = 4;
+
+    private final Path directory;
+
+    /**
+     * Entries that were neither written nor used for longer than this are deleted, see {@link #evictStaleEntries()}.
+     */
+    private final Duration maxEntryAge;
+
+    /**
+     * Calculates a hash of all files at the given relative path; see {@link SourceBundle}.
+     */
+    private final Function<Path, HashCode> dependencyHasher;
+
+    public Optional<List<Violation>> load(SourceRule rule, SourceFile sourceFile)
+    {
+        Path entryFile = getRuleDirectory(rule).resolve(getEntryName(rule, sourceFile));
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(entryFile))))
+        {
+            if (input.readInt() != FORMAT_VERSION)
+            {
+                return Optional.empty();
+            }
+
+            int dependencyCount = input.readInt();
+            for (int i = 0; i < dependencyCount; i++)
+            {
+                Path dependency = sourceFile.getRelativePath()
+                    .getFileSystem()
+                    .getPath(readString(input));
+                HashCode expectedHash = HashCode.fromString(readString(input));
+                if (!dependencyHasher.apply(dependency)
+                    .equals(expectedHash))
+                {
+                    return Optional.empty();
+                }
+            }
+
+            int violationCount = input.readInt();
+            List<Violation> violations = new ArrayList<>(violationCount);
+            for (int i = 0; i < violationCount; i++)
+            {
+                violations.add(readViolation(input, rule, sourceFile));
+            }
+            renew(entryFile);
+            return Optional.of(violations);
+        }
+        catch (NoSuchFileException | EOFException | UTFDataFormatException e)
+        {
+            // Missing or damaged entries are treated the same: the file is scanned and the entry gets (re)written.
+            return Optional.empty();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void store(SourceRule rule, SourceFile sourceFile, Set<Path> dependencies, List<Violation> violations)
+    {
+        Path ruleDirectory = getRuleDirectory(rule);
+        try
+        {
+            Files.createDirectories(ruleDirectory);
+
+            // Write to a temporary file first so that concurrent readers never see incomplete entries
+            Path temporaryFile = Files.createTempFile(ruleDirectory, "entry", ".tmp");
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile))))
+            {
+                output.writeInt(FORMAT_VERSION);
+
+                output.writeInt(dependencies.size());
+                for (Path dependency : dependencies)
+                {
+                    writeString(output, dependency.toString());
+                    writeString(output, dependencyHasher.apply(dependency)
+                        .toString());
+                }
+
+                output.writeInt(violations.size());
+                for (Violation violation : violations)
+                {
+                    writeViolation(output, violation);
+                }
+            }
+
+            Files.move(temporaryFile,
+                ruleDirectory.resolve(getEntryName(rule, sourceFile)),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void renew(Path entryFile)
+    {
+        try
+        {
+            Files.setLastModifiedTime(entryFile, FileTime.from(Instant.now()));
+        }
+        catch (IOException e)
+        {
+            // The entry was evicted by another process or the cache is read-only. Either way, the worst outcome is
+            // that the file gets scanned again later.
+        }
+    }
+
+    /**
+     * Deletes entries that were not used for longer than the maximum age, along with leftovers of interrupted writes
+     * and directories of rules that no longer have any entries.
+     */
+    public void evictStaleEntries()
+    {
+        if (!Files.isDirectory(directory))
+        {
+            return;
+        }
+
+        FileTime threshold = FileTime.from(Instant.now()
+            .minus(maxEntryAge));
+        try
+        {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>()
+            {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException
+                {
+                    if (attributes.lastModifiedTime()
+                        .compareTo(threshold) < 0)
+                    {
+                        Files.deleteIfExists(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path ruleDirectory, IOException e) throws IOException
+                {
+                    if (e != null)
+                    {
+                        throw e;
+                    }
+                    if (!ruleDirectory.equals(directory) && isEmpty(ruleDirectory))
+                    {
+                        Files.deleteIfExists(ruleDirectory);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isEmpty(Path directory) throws IOException
+    {
+        try (Stream<Path> entries = Files.list(directory))
+        {
+            return entries.findAny()
+                .isEmpty();
+        }
+    }
+
+    private static Violation readViolation(DataInputStream input, SourceRule rule, SourceFile sourceFile)
+        throws IOException
+    {
+        int line = input.readInt();
+        int column = input.readInt();
+        String messageTemplate = readString(input);
+
+        int argumentCount = input.readInt();
+        List<Object> arguments = new ArrayList<>(argumentCount);
+        for (int i = 0; i < argumentCount; i++)
+        {
+            arguments.add(readArgument(input));
+        }
+
+        return new Violation(rule.getWarningName(),
+            sourceFile.getRoot(),
+            sourceFile.getRelativePath(),
+            line,
+            column,
+            messageTemplate,
+            arguments);
+    }
+
+    private static Object readArgument(DataInputStream input) throws IOException
+    {
+        char type = input.readChar();
+        return switch (type)
+        {
+            case 'S' -> readString(input);
+            case 'C' -> input.readChar();
+            case 'Z' -> input.readBoolean();
+            case 'B' -> input.readByte();
+            case 'H' -> input.readShort();
+            case 'I' -> input.readInt();
+            case 'L' -> input.readLong();
+            case 'F' -> input.readFloat();
+            case 'D' -> input.readDouble();
+            case 'G' -> new BigInteger(readString(input));
+            case 'M' -> new BigDecimal(readString(input));
+            default -> throw new UTFDataFormatException("Unknown argument type " + type);
+        };
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     */
+    private static String readString(DataInputStream input) throws IOException
+    {
+        int length = input.readInt();
+        if (length < 0)
+        {
+            throw new UTFDataFormatException("Invalid string length " + length);
+        }
+
+        byte[] bytes = input.readNBytes(length);
+        if (bytes.length < length)
+        {
+            throw new EOFException();
+        }
+        return new String(bytes, UTF_8);
+    }
+
+    private static void writeViolation(DataOutputStream output, Violation violation) throws IOException
+    {
+        output.writeInt(violation.line());
+        output.writeInt(violation.column());
+        writeString(output, violation.messageTemplate());
+
+        output.writeInt(violation.arguments()
+            .size());
+        for (Object argument : violation.arguments())
+        {
+            writeArgument(output, argument);
+        }
+    }
+
+    private static void writeArgument(DataOutputStream output, Object argument) throws IOException
+    {
+        // Violation only keeps arguments of these types
+        if (argument instanceof Character value)
+        {
+            output.writeChar('C');
+            output.writeChar(value);
+        }
+        else if (argument instanceof Boolean value)
+        {
+            output.writeChar('Z');
+            output.writeBoolean(value);
+        }
+        else if (argument instanceof Byte value)
+        {
+            output.writeChar('B');
+            output.writeByte(value);
+        }
+        else if (argument instanceof Short value)
+        {
+            output.writeChar('H');
+            output.writeShort(value);
+        }
+        else if (argument instanceof Integer value)
+        {
+            output.writeChar('I');
+            output.writeInt(value);
+        }
+        else if (argument instanceof Long value)
+        {
+            output.writeChar('L');
+            output.writeLong(value);
+        }
+        else if (argument instanceof Float value)
+        {
+            output.writeChar('F');
+            output.writeFloat(value);
+        }
+        else if (argument instanceof Double value)
+        {
+            output.writeChar('D');
+            output.writeDouble(value);
+        }
+        else if (argument instanceof BigInteger value)
+        {
+            output.writeChar('G');
+            writeString(output, value.toString());
+        }
+        else if (argument instanceof BigDecimal value)
+        {
+            output.writeChar('M');
+            writeString(output, value.toString());
+        }
+        else
+        {
+            output.writeChar('S');
+            writeString(output, argument.toString());
+        }
+    }
+
+    /**
+     * Writes the given string as UTF-8 prefixed by its length in bytes. Unlike
+     * {@link DataOutputStream#writeUTF(String)}, this is not limited to 64 KB, which messages quoting source code could
+     * exceed.
+     */
+    private static void writeString(DataOutputStream output, String value) throws IOException
+    {
+        byte[] bytes = value.getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private Path getRuleDirectory(SourceRule rule)
+    {
+        return directory.resolve(rule.getClass()
+            .getName());
+    }
+
+    private String getEntryName(SourceRule rule, SourceFile sourceFile)
+    {
+        String mandorVersion = Objects.requireNonNullElse(SourceRule.class.getPackage()
+            .getImplementationVersion(), "unknown");
+
+        return Hashing.sha256()
+            .newHasher()
+            .putString(mandorVersion, UTF_8)
+            .putChar('\0')
+            .putString(rule.getVersion(), UTF_8)
+            .putChar('\0')
+            .putString(sourceFile.getRelativePath()
+                .toString(), UTF_8)
+            .putChar('\0')
+            .putBytes(sourceFile.getContentHash()
+                .asBytes())
+            .hash() + ".bin";
+    }
+}
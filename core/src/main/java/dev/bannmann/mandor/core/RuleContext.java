@@ -1,7 +1,11 @@
 package dev.bannmann.mandor.core;
 
 import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import lombok.AccessLevel;
@@ -13,7 +17,15 @@ import org.jspecify.annotations.Nullable;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.PackageDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.resolution.SymbolResolver;
 import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.javaparser.resolution.declarations.ResolvedValueDeclaration;
+import com.github.javaparser.resolution.types.ResolvedType;
 import com.github.mizool.core.exception.CodeInconsistencyException;
 import dev.bannmann.labs.core.Nullness;
 
@@ -23,16 +35,75 @@ public final class RuleContext
     @Getter
     private final TypeSolver typeSolver;
 
+    private final SymbolResolver symbolResolver;
+
+    private final ThreadBoundSymbolResolver threadBoundSymbolResolver;
+
     private @Nullable CompilationUnit compilationUnit;
 
+    private @Nullable Path root;
+
     private @Nullable Path relativePath;
 
+    private SuppressionIndex suppressionIndex = new SuppressionIndex();
+
     private final Function<Path, Stream<CompilationUnit>> lookup;
 
-    void activate(CompilationUnit compilationUnit, Path relativePath)
+    private final Predicate<Path> sourceFileExists;
+
+    private final NullnessModel nullnessModel;
+
+    private final AnnotationResolutionCache annotationResolutionCache;
+
+    private @Nullable Map<Node, NullnessModel.Scope> nullnessScopes;
+
+    private @Nullable ImportNameResolver importNameResolver;
+
+    private @Nullable ExpressionResolutionCache expressionResolutionCache;
+
+    /**
+     * The paths passed to {@link #lookup(Path)}, those of the package-info files consulted for the package nullness and
+     * those of the files searched for type declarations since the current compilation unit was activated.
+     */
+    private final Set<Path> consultedPaths;
+
+    void activate(CompilationUnit compilationUnit, Path root, Path relativePath)
     {
+        threadBoundSymbolResolver.bind(symbolResolver);
         this.compilationUnit = compilationUnit;
+        this.root = root;
         this.relativePath = relativePath;
+        suppressionIndex = new SuppressionIndex();
+        nullnessScopes = null;
+        importNameResolver = null;
+        expressionResolutionCache = null;
+        consultedPaths.clear();
+    }
+
+    /**
+     * Ends the activation of the current compilation unit. Releases it along with everything derived from it and the
+     * binding of the symbol resolver to the calling thread.
+     */
+    void deactivate()
+    {
+        threadBoundSymbolResolver.unbind();
+        compilationUnit = null;
+        root = null;
+        relativePath = null;
+        suppressionIndex = new SuppressionIndex();
+        nullnessScopes = null;
+        importNameResolver = null;
+        expressionResolutionCache = null;
+    }
+
+    SuppressionIndex getSuppressionIndex()
+    {
+        return suppressionIndex;
+    }
+
+    Set<Path> getConsultedPaths()
+    {
+        return Set.copyOf(consultedPaths);
     }
 
     public CompilationUnit getCompilationUnit()
@@ -44,6 +115,18 @@ public final class RuleContext
         return compilationUnit;
     }
 
+    /**
+     * @return the directory the current compilation unit was imported from
+     */
+    Path getRoot()
+    {
+        if (root == null)
+        {
+            throw new IllegalStateException();
+        }
+        return root;
+    }
+
     public Path getRelativePath()
     {
         if (relativePath == null)
@@ -73,18 +156,190 @@ public final class RuleContext
      */
     public Stream<CompilationUnit> lookup(Path path)
     {
+        consultedPaths.add(path);
         return lookup.apply(path);
     }
 
+    /**
+     * Resolves the qualified name of the given annotation like {@code annotation.resolve().getQualifiedName()} does.
+     * For annotations in the current compilation unit, the imports and the source files of the package usually suffice
+     * to tell, unless an enclosing type has supertypes that could contribute member types. Otherwise, the symbol solver
+     * is used, reusing earlier results for the same name, package and relevant imports where possible.
+     *
+     * @throws UnsolvedSymbolException if the annotation cannot be resolved
+     */
+    public String resolveQualifiedName(AnnotationExpr annotation)
+    {
+        return findQualifiedName(annotation).orElseThrow(() -> new UnsolvedSymbolException(
+            annotation.getNameAsString()));
+    }
+
+    /**
+     * Works like {@link #resolveQualifiedName(AnnotationExpr)}, but returns an empty optional if the annotation cannot
+     * be resolved. Such names are remembered per compilation unit, so further occurrences fail without another attempt.
+     */
+    public Optional<String> findQualifiedName(AnnotationExpr annotation)
+    {
+        return resolveByImports(annotation).or(() -> annotationResolutionCache.findQualifiedName(annotation));
+    }
+
+    private Optional<String> resolveByImports(AnnotationExpr annotation)
+    {
+        // The resolver does not know about member types inherited from supertypes, which take precedence
+        if (!isInCurrentUnit(annotation) || AnnotationResolutionCache.mayInheritMemberTypes(annotation))
+        {
+            return Optional.empty();
+        }
+
+        ImportNameResolver resolver = importNameResolver;
+        if (resolver == null)
+        {
+            resolver = new ImportNameResolver(getCompilationUnit(),
+                this::hasSourceFileInPackage,
+                typeName -> typeSolver.tryToSolveType(typeName)
+                    .isSolved());
+            importNameResolver = resolver;
+        }
+        return resolver.resolve(annotation.getNameAsString());
+    }
+
+    private boolean isInCurrentUnit(Node node)
+    {
+        CompilationUnit currentUnit = getCompilationUnit();
+        return node.findCompilationUnit()
+            .filter(unit -> Nodes.areTheSame(unit, currentUnit))
+            .isPresent();
+    }
+
+    private boolean hasSourceFileInPackage(String simpleTypeName)
+    {
+        String fileName = simpleTypeName + ".java";
+        Path directoryPath = getRelativePath().getParent();
+        Path path = directoryPath == null
+            ? Path.of(fileName)
+            : directoryPath.resolve(fileName);
+
+        // Adding the file later would change the meaning of the name, so it counts as consulted either way
+        consultedPaths.add(path);
+        return sourceFileExists.test(path);
+    }
+
+    /**
+     * Calculates the type of the given expression like {@code expression.calculateResolvedType()} does. For expressions
+     * of the current compilation unit, the result is remembered for all rules and scans using this context as long as
+     * the syntax tree is retained.
+     *
+     * @return the type, or an empty optional if it cannot be resolved
+     */
+    public Optional<ResolvedType> findResolvedType(Expression expression)
+    {
+        if (!isInCurrentUnit(expression))
+        {
+            return ExpressionResolutionCache.resolveType(expression);
+        }
+        return getExpressionResolutionCache().findType(expression);
+    }
+
+    /**
+     * Resolves the declaration the given name refers to like {@code nameExpr.resolve()} does, remembering the result
+     * the same way as {@link #findResolvedType(Expression)}.
+     *
+     * @return the declaration, or an empty optional if it cannot be resolved
+     */
+    public Optional<ResolvedValueDeclaration> findDeclaration(NameExpr nameExpr)
+    {
+        if (!isInCurrentUnit(nameExpr))
+        {
+            return ExpressionResolutionCache.resolveDeclaration(nameExpr);
+        }
+        return getExpressionResolutionCache().findDeclaration(nameExpr);
+    }
+
+    private ExpressionResolutionCache getExpressionResolutionCache()
+    {
+        ExpressionResolutionCache result = expressionResolutionCache;
+        if (result == null)
+        {
+            result = ExpressionResolutionCache.of(getCompilationUnit(), this, consultedPaths);
+            expressionResolutionCache = result;
+        }
+        return result;
+    }
+
     /**
      * @return the package-info files for the package of the current compilation unit. There may be as many as one per directory imported into the {@link SourceBundle}.
      */
     public Stream<PackageDeclaration> getPackageInfoFiles()
+    {
+        return lookup(getPackageInfoPath()).flatMap(packageInfoUnit -> packageInfoUnit.getPackageDeclaration()
+            .stream());
+    }
+
+    private Path getPackageInfoPath()
     {
         Path directoryPath = Nullness.guaranteeNonNull(getRelativePath().getParent());
-        Path packageInfoPath = directoryPath.resolve("package-info.java");
+        return directoryPath.resolve("package-info.java");
+    }
 
-        return lookup(packageInfoPath).flatMap(packageInfoUnit -> packageInfoUnit.getPackageDeclaration()
-            .stream());
+    /**
+     * @return the nullness default declared by the package-info files for the package of the current compilation unit
+     */
+    public NullnessModel.Nullness getPackageNullness()
+    {
+        Path packageInfoPath = getPackageInfoPath();
+        consultedPaths.add(packageInfoPath);
+        return nullnessModel.getPackageNullness(packageInfoPath);
+    }
+
+    /**
+     * @return the innermost declaration annotated with {@code @NullMarked} or {@code @NullUnmarked} that encloses the
+     * given node of the current compilation unit, or the node itself if it is annotated that way
+     */
+    public Optional<NullnessModel.Scope> findNullnessScope(Node node)
+    {
+        Map<Node, NullnessModel.Scope> scopes = nullnessScopes;
+        if (scopes == null)
+        {
+            scopes = NullnessModel.determineScopes(getCompilationUnit());
+            nullnessScopes = scopes;
+        }
+        return Optional.ofNullable(scopes.get(node));
+    }
+
+    /**
+     * @return the nullness in effect at the given node of the current compilation unit, taking both the enclosing
+     * declarations and the package into account
+     */
+    public NullnessModel.Nullness getNullness(Node node)
+    {
+        return findNullnessScope(node).map(NullnessModel.Scope::nullness)
+            .orElseGet(this::getPackageNullness);
+    }
+
+    /**
+     * Tells whether the given node of the current compilation unit is within a type annotated with {@code @NullMarked}
+     * or in a package with at least one package-info file annotated that way. Unlike {@link #getNullness(Node)}, this
+     * disregards {@code @NullUnmarked} as well as {@code @NullMarked} on members.
+     */
+    public boolean isNullMarked(Node node)
+    {
+        Optional<NullnessModel.Scope> scope = findNullnessScope(node);
+        while (scope.isPresent())
+        {
+            NullnessModel.Scope currentScope = scope.get();
+            if (currentScope.declaration() instanceof TypeDeclaration<?> && declaresNullMarked(currentScope.nullness()))
+            {
+                return true;
+            }
+            scope = currentScope.declaration()
+                .getParentNode()
+                .flatMap(this::findNullnessScope);
+        }
+        return declaresNullMarked(getPackageNullness());
+    }
+
+    private static boolean declaresNullMarked(NullnessModel.Nullness nullness)
+    {
+        return nullness == NullnessModel.Nullness.NULL_MARKED || nullness == NullnessModel.Nullness.CONFLICTING;
     }
 }
@@ -0,0 +1,305 @@
+package dev.bannmann.mandor.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.Nullable;
+
+import com.github.javaparser.ast.CompilationUnit;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Scans source files with a fixed set of rule instances, one file at a time. Rules with a cached result for a file or
+ * lacking their {@linkplain SourceRule#getTriggerTokens() trigger tokens} in it are skipped. If this applies to all of
+ * them, the file is not parsed here, which only saves work if the bundle did not parse it while importing it already.
+ * <p>
+ * Violations exceeding the {@link ViolationLimit} are discarded. If a {@link ViolationDelivery} is given, the
+ * violations of each file are delivered and then removed from the rules. Otherwise, they accumulate in the rules.
+ */
+@NotThreadSafe
+final class RuleRunner
+{
+    private final List<SourceRule> rules;
+    private final RuleContext context;
+    private final @Nullable ResultCache resultCache;
+    private final @Nullable ScanStatistics statistics;
+    private final @Nullable ScanTracer tracer;
+    private final @Nullable ViolationDelivery delivery;
+    private final ViolationLimit violationLimit;
+
+    /**
+     * The {@linkplain SourceRule#getTriggerTokens() trigger tokens} of each rule that has any.
+     */
+    private final Map<SourceRule, Set<String>> triggerTokensByRule = new HashMap<>();
+
+    /**
+     * The trigger tokens of all rules, so that each file is searched for all of them at once.
+     */
+    private final Set<String> allTriggerTokens = new HashSet<>();
+
+    /**
+     * Dispatchers for each combination of rules that needed to scan a file, usually just one.
+     */
+    private final Map<List<SourceRule>, NodeDispatcher> dispatchers = new HashMap<>();
+
+    public RuleRunner(
+        List<? extends SourceRule> rules,
+        RuleContext context,
+        @Nullable ResultCache resultCache,
+        @Nullable ScanStatistics statistics,
+        @Nullable ScanTracer tracer,
+        @Nullable ViolationDelivery delivery,
+        ViolationLimit violationLimit)
+    {
+        this.rules = List.copyOf(rules);
+        this.context = context;
+        this.resultCache = resultCache;
+        this.statistics = statistics;
+        this.tracer = tracer;
+        this.delivery = delivery;
+        this.violationLimit = violationLimit;
+
+        this.rules.forEach(rule -> rule.init(context));
+
+        for (SourceRule rule : this.rules)
+        {
+            Set<String> triggerTokens = rule.getTriggerTokens();
+            if (!triggerTokens.isEmpty())
+            {
+                // A file that does not trigger the rule could still contain a needless suppression of it
+                Set<String> tokens = Stream.concat(triggerTokens.stream(), Stream.of(rule.getWarningName()))
+                    .collect(Collectors.toUnmodifiableSet());
+                triggerTokensByRule.put(rule, tokens);
+                allTriggerTokens.addAll(tokens);
+            }
+        }
+    }
+
+    public void scan(SourceFile sourceFile)
+    {
+        List<SourceRule> triggeredRules = selectTriggeredRules(sourceFile);
+        List<Integer> previousCounts = countViolations(triggeredRules);
+        List<SourceRule> pendingRules = new ArrayList<>();
+        for (SourceRule rule : triggeredRules)
+        {
+            loadCachedViolations(rule, sourceFile).ifPresentOrElse(rule::addCachedViolations,
+                () -> pendingRules.add(rule));
+        }
+        if (!pendingRules.isEmpty())
+        {
+            scan(sourceFile, pendingRules);
+        }
+
+        applyViolationLimit(triggeredRules, previousCounts);
+
+        if (delivery != null)
+        {
+            // Earlier violations were delivered already, so the rules only hold those of this file
+            List<Violation> violations = new ArrayList<>();
+            for (SourceRule rule : triggeredRules)
+            {
+                violations.addAll(rule.getViolations());
+                rule.trimViolations(0);
+            }
+            delivery.deliver(violations);
+        }
+    }
+
+    private static List<Integer> countViolations(List<SourceRule> rules)
+    {
+        return rules.stream()
+            .map(rule -> rule.getViolations()
+                .size())
+            .toList();
+    }
+
+    private void applyViolationLimit(List<SourceRule> rules, List<Integer> previousCounts)
+    {
+        int newViolationCount = 0;
+        for (int i = 0; i < rules.size(); i++)
+        {
+            newViolationCount += rules.get(i)
+                .getViolations()
+                .size() - previousCounts.get(i);
+        }
+        if (newViolationCount == 0)
+        {
+            return;
+        }
+
+        int allowance = violationLimit.claim(newViolationCount);
+        for (int i = 0; i < rules.size(); i++)
+        {
+            SourceRule rule = rules.get(i);
+            int previousCount = previousCounts.get(i);
+            int keptCount = Math.min(rule.getViolations()
+                .size() - previousCount, allowance);
+            rule.trimViolations(previousCount + keptCount);
+            allowance -= keptCount;
+        }
+    }
+
+    private void scan(SourceFile sourceFile, List<SourceRule> pendingRules)
+    {
+        List<Integer> previousCounts = countViolations(pendingRules);
+
+        CompilationUnit compilationUnit = sourceFile.getCompilationUnit();
+
+        // Tell the context about the new compilation unit so that its helper methods work.
+        context.activate(compilationUnit, sourceFile.getRoot(), sourceFile.getRelativePath());
+        try
+        {
+            scanActiveUnit(sourceFile, compilationUnit, pendingRules);
+            storeResults(sourceFile, pendingRules, previousCounts);
+        }
+        finally
+        {
+            context.deactivate();
+        }
+    }
+
+    private void scanActiveUnit(SourceFile sourceFile, CompilationUnit compilationUnit, List<SourceRule> pendingRules)
+    {
+        // Initiate the scan itself
+        long start = System.nanoTime();
+        try
+        {
+            scan(compilationUnit, pendingRules);
+        }
+        catch (RuntimeException e)
+        {
+            var event = new ScanFailureEvent();
+            if (event.isEnabled())
+            {
+                event.file = context.getFilePath()
+                    .toString();
+                event.message = Objects.requireNonNullElse(e.getMessage(),
+                    e.getClass()
+                        .getName());
+                event.commit();
+            }
+            throw new UnprocessableSourceCodeException("Rule failed to process " + context.getFilePath(), e);
+        }
+        if (statistics != null)
+        {
+            statistics.recordScan(sourceFile.getAbsolutePath(), System.nanoTime() - start);
+        }
+    }
+
+    private void storeResults(SourceFile sourceFile, List<SourceRule> pendingRules, List<Integer> previousCounts)
+    {
+        if (resultCache != null)
+        {
+            for (int i = 0; i < pendingRules.size(); i++)
+            {
+                SourceRule rule = pendingRules.get(i);
+                if (rule.isCacheable())
+                {
+                    List<Violation> violations = rule.getViolations();
+                    resultCache.store(rule,
+                        sourceFile,
+                        context.getConsultedPaths(),
+                        violations.subList(previousCounts.get(i), violations.size()));
+                }
+            }
+        }
+    }
+
+    private List<SourceRule> selectTriggeredRules(SourceFile sourceFile)
+    {
+        if (triggerTokensByRule.isEmpty())
+        {
+            return rules;
+        }
+
+        Set<String> occurringTokens = sourceFile.findOccurringTokens(allTriggerTokens);
+        return rules.stream()
+            .filter(rule -> isTriggered(rule, occurringTokens))
+            .toList();
+    }
+
+    private boolean isTriggered(SourceRule rule, Set<String> occurringTokens)
+    {
+        Set<String> triggerTokens = triggerTokensByRule.get(rule);
+        if (triggerTokens == null)
+        {
+            return true;
+        }
+        return triggerTokens.stream()
+            .anyMatch(occurringTokens::contains);
+    }
+
+    private Optional<List<Violation>> loadCachedViolations(SourceRule rule, SourceFile sourceFile)
+    {
+        if (resultCache == null || !rule.isCacheable())
+        {
+            return Optional.empty();
+        }
+        return resultCache.load(rule, sourceFile);
+    }
+
+    private void scan(CompilationUnit compilationUnit, List<SourceRule> pendingRules)
+    {
+        List<SourceRule> dispatchedRules = pendingRules.stream()
+            .filter(SourceRule::hasNodeHandlers)
+            .toList();
+        if (!dispatchedRules.isEmpty())
+        {
+            var event = new ScanEvent();
+            event.begin();
+            long start = System.nanoTime();
+            dispatchers.computeIfAbsent(dispatchedRules, key -> new NodeDispatcher(key, statistics))
+                .traverse(compilationUnit);
+            finish(event, dispatchedRules, start);
+        }
+
+        for (SourceRule rule : pendingRules)
+        {
+            if (!rule.hasNodeHandlers())
+            {
+                var event = new ScanEvent();
+                event.begin();
+                long start = System.nanoTime();
+                rule.scan(compilationUnit);
+                if (statistics != null)
+                {
+                    statistics.recordRuleScan(rule, System.nanoTime() - start);
+                }
+                finish(event, List.of(rule), start);
+            }
+        }
+    }
+
+    private void finish(ScanEvent event, List<SourceRule> scannedRules, long startNanos)
+    {
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.file = context.getFilePath()
+                .toString();
+            event.rules = describe(scannedRules);
+            event.commit();
+        }
+
+        if (tracer != null)
+        {
+            tracer.record(ScanTracer.SCAN, describe(scannedRules), context.getFilePath(), startNanos);
+        }
+    }
+
+    private static String describe(List<SourceRule> rules)
+    {
+        return rules.stream()
+            .map(rule -> rule.getClass()
+                .getSimpleName())
+            .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,105 @@
+package dev.bannmann.mandor.core;
+
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Streams;
+import com.google.common.net.UrlEscapers;
+
+/**
+ * Writes violations as a SARIF 2.1.0 log with a single run, which code scanning services and IDEs can display. File
+ * URIs are relative to the directory the respective file was imported from. Each such directory gets a
+ * {@code uriBaseId} of the form {@code ROOT0}, {@code ROOT1} and so on, which the {@code originalUriBaseIds} of the run
+ * map to absolute URIs.
+ * <p>
+ * The log is only complete after the writer was {@linkplain #close() closed}.
+ */
+public final class SarifViolationWriter extends ViolationWriter
+{
+    private static final String START = """
+        {"$schema":"https://json.schemastore.org/sarif-2.1.0.json","version":"2.1.0","runs":[{\
+        "tool":{"driver":{"name":"mandor","informationUri":"https://github.com/bannmann/mandor"}},"results":[""";
+    private boolean first = true;
+
+    /**
+     * The {@code uriBaseId} of each root directory, in the order of their first violation.
+     */
+    private final Map<Path, String> uriBaseIds = new LinkedHashMap<>();
+
+    public SarifViolationWriter(Writer writer)
+    {
+        super(writer);
+        write(START);
+    }
+
+    public SarifViolationWriter(Path file)
+    {
+        this(open(file));
+    }
+
+    @Override
+    protected String formatViolation(Violation violation)
+    {
+        var result = new StringBuilder(first ? "\n" : ",\n");
+        first = false;
+
+        result.append("{\"ruleId\":\"")
+            .append(Json.escape(violation.rule()))
+            .append("\",\"level\":\"error\",\"message\":{\"text\":\"")
+            .append(Json.escape(violation.getText()))
+            .append("\"},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":\"")
+            .append(Json.escape(toUri(violation.file())))
+            .append("\",\"uriBaseId\":\"")
+            .append(uriBaseIds.computeIfAbsent(violation.root(), root -> "ROOT" + uriBaseIds.size()))
+            .append("\"}");
+        if (violation.hasPosition())
+        {
+            result.append(",\"region\":{\"startLine\":")
+                .append(violation.line())
+                .append(",\"startColumn\":")
+                .append(violation.column())
+                .append('}');
+        }
+        result.append("}}]}");
+        return result.toString();
+    }
+
+    @Override
+    protected String getEnd()
+    {
+        return uriBaseIds.entrySet()
+            .stream()
+            .map(entry -> "\"%s\":{\"uri\":\"%s\"}".formatted(entry.getValue(),
+                Json.escape(toDirectoryUri(entry.getKey()))))
+            .collect(Collectors.joining(",", "\n],\"originalUriBaseIds\":{", "}}]}\n"));
+    }
+
+    /**
+     * @return the URI of the file relative to its root directory, using forward slashes on all platforms
+     */
+    private static String toUri(Path file)
+    {
+        return Joiner.on('/')
+            .join(Streams.stream(file)
+                .map(name -> UrlEscapers.urlPathSegmentEscaper()
+                    .escape(name.toString()))
+                .iterator());
+    }
+
+    /**
+     * @return the absolute URI of the given directory, which SARIF requires to end with a slash
+     */
+    private static String toDirectoryUri(Path directory)
+    {
+        String uri = directory.toAbsolutePath()
+            .toUri()
+            .toString();
+        return uri.endsWith("/")
+            ? uri
+            : uri + "/";
+    }
+}
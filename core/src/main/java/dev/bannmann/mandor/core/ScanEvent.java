@@ -0,0 +1,23 @@
+package dev.bannmann.mandor.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.bannmann.mandor.Scan")
+@Label("Scan Source File")
+@Description("Scanning a compilation unit with one rule, or with several rules sharing a pass over the syntax tree")
+@Category("Mandor")
+@StackTrace(false)
+final class ScanEvent extends Event
+{
+    @Label("File")
+    String file = "";
+
+    @Label("Rules")
+    @Description("Simple class names of the rules, separated by commas")
+    String rules = "";
+}
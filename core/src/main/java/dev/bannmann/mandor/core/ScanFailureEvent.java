@@ -0,0 +1,20 @@
+package dev.bannmann.mandor.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("dev.bannmann.mandor.ScanFailure")
+@Label("Scan Failure")
+@Description("A rule could not process a source file, see UnprocessableSourceCodeException")
+@Category("Mandor")
+final class ScanFailureEvent extends Event
+{
+    @Label("File")
+    String file = "";
+
+    @Label("Message")
+    String message = "";
+}
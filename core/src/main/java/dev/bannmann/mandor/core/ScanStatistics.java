@@ -0,0 +1,192 @@
+package dev.bannmann.mandor.core;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Measurements collected while importing and scanning a {@link SourceBundle}, see
+ * {@link SourceBundle#withStatistics()}. Values accumulate over all scans of the bundle; files parsed more than once
+ * contribute each parse.
+ * <p>
+ * Instances are safe to read while scans are running on other threads.
+ */
+public final class ScanStatistics
+{
+    /**
+     * @param file the absolute path of the file
+     */
+    public record FileTiming(Path file, Duration parseTime, Duration scanTime, long nodeCount)
+    {
+        public Duration getTotalTime()
+        {
+            return parseTime.plus(scanTime);
+        }
+    }
+
+    private final Map<Path, LongAdder> parseNanosByFile = new ConcurrentHashMap<>();
+    private final Map<Path, LongAdder> scanNanosByFile = new ConcurrentHashMap<>();
+    private final Map<Path, Long> nodeCountsByFile = new ConcurrentHashMap<>();
+    private final Map<Class<? extends SourceRule>, LongAdder> scanNanosByRule = new ConcurrentHashMap<>();
+    private final LongAdder resolutionCount = new LongAdder();
+    private final LongAdder resolutionNanos = new LongAdder();
+    private final LongAdder annotationCacheHits = new LongAdder();
+    private final LongAdder annotationCacheMisses = new LongAdder();
+
+    ScanStatistics()
+    {
+    }
+
+    void recordParse(Path file, long nanos, long nodeCount)
+    {
+        add(parseNanosByFile, file, nanos);
+        nodeCountsByFile.put(file, nodeCount);
+    }
+
+    void recordScan(Path file, long nanos)
+    {
+        add(scanNanosByFile, file, nanos);
+    }
+
+    void recordRuleScan(SourceRule rule, long nanos)
+    {
+        add(scanNanosByRule, rule.getClass(), nanos);
+    }
+
+    void recordResolution(long nanos)
+    {
+        resolutionCount.increment();
+        resolutionNanos.add(nanos);
+    }
+
+    void recordAnnotationResolution(boolean cached)
+    {
+        if (cached)
+        {
+            annotationCacheHits.increment();
+        }
+        else
+        {
+            annotationCacheMisses.increment();
+        }
+    }
+
+    private static <K> void add(Map<K, LongAdder> map, K key, long nanos)
+    {
+        map.computeIfAbsent(key, k -> new LongAdder())
+            .add(nanos);
+    }
+
+    /**
+     * @return the time spent parsing each file, keyed by absolute path
+     */
+    public Map<Path, Duration> getParseTimes()
+    {
+        return toDurations(parseNanosByFile);
+    }
+
+    /**
+     * @return the time all rules together spent scanning each file, keyed by absolute path
+     */
+    public Map<Path, Duration> getScanTimesByFile()
+    {
+        return toDurations(scanNanosByFile);
+    }
+
+    /**
+     * @return the time each rule spent scanning all files. For rules sharing a pass over the syntax tree, only the time
+     * spent in their node handlers is counted.
+     */
+    public Map<Class<? extends SourceRule>, Duration> getScanTimesByRule()
+    {
+        return toDurations(scanNanosByRule);
+    }
+
+    private static <K> Map<K, Duration> toDurations(Map<K, LongAdder> nanos)
+    {
+        return nanos.entrySet()
+            .stream()
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey,
+                entry -> Duration.ofNanos(entry.getValue()
+                    .sum())));
+    }
+
+    /**
+     * @return the number of syntax tree nodes of each parsed file, keyed by absolute path
+     */
+    public Map<Path, Long> getNodeCounts()
+    {
+        return Map.copyOf(nodeCountsByFile);
+    }
+
+    public long getTotalNodeCount()
+    {
+        return nodeCountsByFile.values()
+            .stream()
+            .mapToLong(Long::longValue)
+            .sum();
+    }
+
+    /**
+     * @return the number of symbol resolution requests made by rules, e.g. via {@code resolve()} or
+     * {@code calculateResolvedType()}
+     */
+    public long getResolutionCount()
+    {
+        return resolutionCount.sum();
+    }
+
+    /**
+     * @return the time spent answering the requests counted by {@link #getResolutionCount()}
+     */
+    public Duration getResolutionTime()
+    {
+        return Duration.ofNanos(resolutionNanos.sum());
+    }
+
+    /**
+     * @return the number of annotation names whose qualified name was already known from an earlier resolution, see
+     * {@link RuleContext#resolveQualifiedName(com.github.javaparser.ast.expr.AnnotationExpr)}
+     */
+    public long getAnnotationCacheHitCount()
+    {
+        return annotationCacheHits.sum();
+    }
+
+    /**
+     * @return the number of annotation names that had to be resolved via the symbol solver
+     */
+    public long getAnnotationCacheMissCount()
+    {
+        return annotationCacheMisses.sum();
+    }
+
+    /**
+     * @return the files with the highest combined parse and scan time, slowest first
+     */
+    public List<FileTiming> getSlowestFiles(int limit)
+    {
+        Map<Path, Duration> parseTimes = getParseTimes();
+        Map<Path, Duration> scanTimes = getScanTimesByFile();
+
+        Set<Path> files = new HashSet<>(parseTimes.keySet());
+        files.addAll(scanTimes.keySet());
+
+        return files.stream()
+            .map(file -> new FileTiming(file,
+                parseTimes.getOrDefault(file, Duration.ZERO),
+                scanTimes.getOrDefault(file, Duration.ZERO),
+                nodeCountsByFile.getOrDefault(file, 0L)))
+            .sorted(Comparator.comparing(FileTiming::getTotalTime)
+                .reversed())
+            .limit(limit)
+            .toList();
+    }
+}
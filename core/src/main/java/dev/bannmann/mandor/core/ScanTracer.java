@@ -0,0 +1,150 @@
+package dev.bannmann.mandor.core;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Records spans of work done while importing and scanning a {@link SourceBundle} and writes them as a JSON file in the
+ * Trace Event Format, which trace viewers like Perfetto or {@code chrome://tracing} can display. Each span is tagged
+ * with the thread that did the work, so the timeline shows one row per thread.
+ * <p>
+ * Spans can be recorded from any thread. They are buffered in memory and appended to the file in batches, using the
+ * JSON array variant of the format. That variant allows leaving out the closing bracket, so the file is valid at any
+ * time without ever being rewritten.
+ */
+final class ScanTracer
+{
+    public static final String PARSE = "parse";
+    public static final String SCAN = "scan";
+    public static final String RESOLUTION = "resolution";
+
+    private record Span(
+        String category, String name, @Nullable Path file, int threadId, long startNanos, long endNanos)
+    {
+    }
+
+    private static final int MAX_BUFFERED_SPANS = 10_000;
+
+    private static final String THREAD_NAME_FORMAT
+        = "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":%d,\"args\":{\"name\":\"%s\"}}";
+    private static final String SPAN_FORMAT
+        = "{\"name\":\"%s\",\"cat\":\"%s\",\"ph\":\"X\",\"ts\":%s,\"dur\":%s,\"pid\":1,\"tid\":%d";
+
+    private final Path traceFile;
+    private final long originNanos = System.nanoTime();
+    private final Queue<String> threadNameEvents = new ConcurrentLinkedQueue<>();
+    private final Queue<Span> spans = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferedSpanCount = new AtomicInteger();
+
+    /**
+     * Trace viewers only need a number per thread, so a counter avoids relying on the platform's thread IDs.
+     */
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ThreadLocal<Integer> threadIds = ThreadLocal.withInitial(this::registerThread);
+
+    /**
+     * Guarded by {@code this}.
+     */
+    private boolean empty = true;
+
+    /**
+     * @throws UncheckedIOException if the trace file cannot be written
+     */
+    public ScanTracer(Path traceFile)
+    {
+        this.traceFile = traceFile;
+        try
+        {
+            Files.writeString(traceFile, "[");
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Integer registerThread()
+    {
+        int threadId = threadCount.incrementAndGet();
+        threadNameEvents.add(THREAD_NAME_FORMAT.formatted(threadId,
+            Json.escape(Thread.currentThread()
+                .getName())));
+        return threadId;
+    }
+
+    /**
+     * Records a span that started at the given {@link System#nanoTime()} value and ends now.
+     *
+     * @param file the file the work was done for, or {@code null} if not applicable
+     */
+    public void record(String category, String name, @Nullable Path file, long startNanos)
+    {
+        long endNanos = System.nanoTime();
+        spans.add(new Span(category, name, file, threadIds.get(), startNanos, endNanos));
+        if (bufferedSpanCount.incrementAndGet() >= MAX_BUFFERED_SPANS)
+        {
+            write();
+        }
+    }
+
+    /**
+     * Appends the spans recorded since the last call to the trace file.
+     */
+    public synchronized void write()
+    {
+        try (BufferedWriter writer = Files.newBufferedWriter(traceFile, APPEND))
+        {
+            for (String event = threadNameEvents.poll(); event != null; event = threadNameEvents.poll())
+            {
+                writeEvent(writer, event);
+            }
+            for (Span span = spans.poll(); span != null; span = spans.poll())
+            {
+                bufferedSpanCount.decrementAndGet();
+                writeEvent(writer, formatSpan(span));
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeEvent(BufferedWriter writer, String event) throws IOException
+    {
+        writer.write(empty ? "\n" : ",\n");
+        empty = false;
+        writer.write(event);
+    }
+
+    private String formatSpan(Span span)
+    {
+        String result = SPAN_FORMAT.formatted(Json.escape(span.name()),
+            span.category(),
+            toMicros(span.startNanos() - originNanos),
+            toMicros(span.endNanos() - span.startNanos()),
+            span.threadId());
+        Path file = span.file();
+        if (file != null)
+        {
+            result += ",\"args\":{\"file\":\"%s\"}".formatted(Json.escape(file.toString()));
+        }
+        return result + "}";
+    }
+
+    private static String toMicros(long nanos)
+    {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000.0);
+    }
+}
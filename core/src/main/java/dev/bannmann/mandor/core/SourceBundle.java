@@ -2,59 +2,278 @@ package dev.bannmann.mandor.core;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.jspecify.annotations.Nullable;
+
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.JavaParserAdapter;
 import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.resolution.SymbolResolver;
 import com.github.javaparser.symbolsolver.JavaSymbolSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
-import com.github.mizool.core.exception.CodeInconsistencyException;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MultimapBuilder;
+import com.google.common.collect.Multimaps;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import dev.bannmann.labs.core.Nullness;
 
 public class SourceBundle
 {
+    private static final ParserConfiguration.LanguageLevel LANGUAGE_LEVEL
+        = ParserConfiguration.LanguageLevel.BLEEDING_EDGE;
+    private static final Duration DEFAULT_RESULT_CACHE_ENTRY_AGE = Duration.ofDays(30);
+
+    private record IndexedFile(int index, SourceFile sourceFile)
+    {
+    }
+
     /**
-     * All compilation units (classes, package-info) keyed to the path relative to their respective root directory (e.g.
+     * All source files (classes, package-info) keyed to the path relative to their respective root directory (e.g.
      * {@code com/example/package-info.java} or {@code com/example/Foo.java}).
      */
-    private final ListMultimap<Path, CompilationUnit> compilationUnits = MultimapBuilder.linkedHashKeys()
+    private final ListMultimap<Path, SourceFile> sourceFiles = MultimapBuilder.linkedHashKeys()
+        .arrayListValues()
+        .build();
+
+    /**
+     * The same source files, keyed to the fully qualified name of the top level type their path suggests.
+     */
+    private final ListMultimap<String, SourceFile> sourceFilesByTypeName = MultimapBuilder.hashKeys()
         .arrayListValues()
         .build();
-    private final CombinedTypeSolver sourceBasedTypeSolver;
+
+    /**
+     * The same source files, keyed to the package name their path suggests.
+     */
+    private final ListMultimap<String, SourceFile> sourceFilesByPackageName = MultimapBuilder.hashKeys()
+        .arrayListValues()
+        .build();
+
+    /**
+     * The file filters of all imports, keyed to their absolute start directory. Filters of imports sharing a start
+     * directory are combined.
+     */
+    private final Map<Path, BiPredicate<Path, BasicFileAttributes>> importFilters = new LinkedHashMap<>();
+
+    private final ThreadBoundSymbolResolver symbolResolver = new ThreadBoundSymbolResolver();
+    private final NullnessModel nullnessModel = new NullnessModel(this::lookupCompilationUnit);
     private final ParserConfiguration parserConfiguration;
-    private final JavaParserAdapter javaParserAdapter;
-    private final RuleContext ruleContext;
 
-    public SourceBundle()
-    {
-        sourceBasedTypeSolver = new CombinedTypeSolver();
+    /**
+     * JavaParser instances are not thread-safe, so each thread that parses files gets its own.
+     */
+    private final ThreadLocal<JavaParserAdapter> javaParserAdapters;
+    private RuleContext ruleContext;
+
+    /**
+     * The contexts of the threads of parallel scans, which are kept across scans just like {@link #ruleContext}.
+     */
+    private final List<RuleContext> workerContexts = new ArrayList<>();
+
+    private int parallelism = 1;
+    private @Nullable ResultCache resultCache;
+    private boolean streaming;
+    private @Nullable LoadingCache<SourceFile, CompilationUnit> parsedFileCache;
 
-        CombinedTypeSolver typeSolverWithFallback = new CombinedTypeSolver();
-        typeSolverWithFallback.add(sourceBasedTypeSolver);
-        typeSolverWithFallback.add(new ReflectionTypeSolver(false));
+    /**
+     * Set whenever the {@link #parsedFileCache} discards a syntax tree, so that the caches of the symbol solver can be
+     * told to let go of it as well.
+     */
+    private final AtomicBoolean parsedFilesDiscarded = new AtomicBoolean();
 
+    private @Nullable ScanStatistics statistics;
+    private @Nullable ScanTracer tracer;
+    private int violationLimit = Integer.MAX_VALUE;
+
+    public SourceBundle()
+    {
         parserConfiguration = new ParserConfiguration();
         parserConfiguration
-            .setLanguageLevel(ParserConfiguration.LanguageLevel.BLEEDING_EDGE)
-            .setSymbolResolver(new JavaSymbolSolver(typeSolverWithFallback));
+            .setLanguageLevel(LANGUAGE_LEVEL)
+            .setSymbolResolver(symbolResolver);
+
+        javaParserAdapters = ThreadLocal.withInitial(() -> new JavaParserAdapter(new JavaParser(parserConfiguration)));
+
+        ruleContext = createContext();
+    }
+
+    /**
+     * Sets the number of threads used to parse source files and to {@linkplain #verify(Supplier) scan them with rule
+     * factories}. Files are still processed and reported in the order in which they were found, so the results of a
+     * scan do not depend on this setting.
+     *
+     * @param parallelism the number of threads, or {@code 1} to do all work on the calling thread
+     */
+    public SourceBundle withParallelism(int parallelism)
+    {
+        Preconditions.checkArgument(parallelism > 0, "Parallelism must be positive, but was %s", parallelism);
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Keeps the violations found in each file in the given directory so that later scans can skip files that did not
+     * change. A cached result is only used if the files the rule {@linkplain RuleContext#lookup(Path) looked up} or
+     * resolved types from did not change either.
+     * <p>
+     * Files imported after calling this method are parsed only when a rule actually needs to scan them.
+     * <p>
+     * Entries that were not used for 30 days, e.g. those of deleted files or removed rules, are deleted by this method.
+     */
+    public SourceBundle withResultCache(Path directory)
+    {
+        return withResultCache(directory, DEFAULT_RESULT_CACHE_ENTRY_AGE);
+    }
+
+    /**
+     * Like {@link #withResultCache(Path)}, but deletes entries that were not used for the given duration.
+     */
+    public SourceBundle withResultCache(Path directory, Duration maxEntryAge)
+    {
+        Preconditions.checkArgument(!maxEntryAge.isNegative(), "Maximum entry age must not be negative");
+        resultCache = new ResultCache(directory, maxEntryAge, this::hashFilesAt);
+        resultCache.evictStaleEntries();
+        return this;
+    }
+
+    /**
+     * Releases the syntax tree of each file once all rules scanned it, so that memory use depends on the
+     * {@linkplain #withParallelism(int) parallelism} instead of the number of files. Package-info files are kept. Other
+     * files that rules {@linkplain RuleContext#lookup(Path) look up} or resolve types from are parsed again as needed,
+     * which makes this mode best suited for rules that only inspect the current file and its package-info files. The
+     * same goes for symbols: the caches of the symbol solver refer to the syntax trees, so they are discarded as well.
+     * <p>
+     * Files imported after calling this method are parsed only when a rule actually needs to scan them.
+     */
+    public SourceBundle withStreaming()
+    {
+        streaming = true;
+        return this;
+    }
 
-        var javaParser = new JavaParser(parserConfiguration);
-        javaParserAdapter = new JavaParserAdapter(javaParser);
+    /**
+     * Keeps at most the given number of syntax trees in memory, discarding the least recently used ones and parsing
+     * them again when needed. Package-info files do not count against the limit and are always kept. The caches of the
+     * symbol solver are discarded along with the syntax trees they refer to.
+     * <p>
+     * Files imported after calling this method are parsed only when a rule actually needs to scan them.
+     *
+     * @param maximumSize the number of parsed files to keep, which should be well above the
+     * {@linkplain #withParallelism(int) parallelism}
+     */
+    public SourceBundle withParsedFileLimit(int maximumSize)
+    {
+        Preconditions.checkArgument(maximumSize > 0, "Limit must be positive, but was %s", maximumSize);
+        parsedFileCache = CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .removalListener(notification -> parsedFilesDiscarded.set(true))
+            .build(CacheLoader.from(SourceFile::parse));
+        return this;
+    }
 
-        ruleContext = new RuleContext(typeSolverWithFallback, this::lookupCompilationUnit);
+    /**
+     * Measures parse and scan times per file, scan times per rule and the effort spent on symbol resolution. This adds
+     * a small overhead to each measured operation, so it is off by default.
+     * <p>
+     * Only files imported after calling this method have their parse time recorded.
+     *
+     * @see #getStatistics()
+     */
+    public SourceBundle withStatistics()
+    {
+        statistics = new ScanStatistics();
+        discardContexts();
+        return this;
+    }
+
+    /**
+     * @throws IllegalStateException if {@link #withStatistics()} was not called
+     */
+    public ScanStatistics getStatistics()
+    {
+        if (statistics == null)
+        {
+            throw new IllegalStateException("Statistics are not enabled for this bundle");
+        }
+        return statistics;
+    }
+
+    /**
+     * Writes a timeline of the work done to the given file in the Trace Event Format, with one span per file parse,
+     * per rule scan and per symbol resolution request, each tagged with the thread that did the work. The file can be
+     * opened in trace viewers like Perfetto or {@code chrome://tracing}. Spans are appended to the file in batches and
+     * at the end of each import and scan, so it always covers everything done so far.
+     *
+     * @throws UncheckedIOException if the trace file cannot be written
+     */
+    public SourceBundle withTrace(Path traceFile)
+    {
+        tracer = new ScanTracer(traceFile);
+        discardContexts();
+        return this;
+    }
+
+    /**
+     * Stops each scan once the given number of violations was found. Files not started by then are neither parsed nor
+     * scanned, while files being scanned by other threads at that moment are completed but contribute no further
+     * violations. Which violations are reported by a {@linkplain #withParallelism(int) parallel} scan thus depends on
+     * the order in which its threads finish their files.
+     * <p>
+     * Files imported after calling this method are parsed only when a rule actually needs to scan them.
+     *
+     * @param maximumViolations the number of violations to report per scan
+     */
+    public SourceBundle withViolationLimit(int maximumViolations)
+    {
+        Preconditions.checkArgument(maximumViolations > 0,
+            "Violation limit must be positive, but was %s",
+            maximumViolations);
+        violationLimit = maximumViolations;
+        return this;
+    }
+
+    /**
+     * Stops each scan at the first violation, see {@link #withViolationLimit(int)}.
+     */
+    public SourceBundle withFailFast()
+    {
+        return withViolationLimit(1);
     }
 
     public SourceBundle importSources(String directory)
@@ -80,28 +299,144 @@ public class SourceBundle
     private SourceBundle importSources(Path path, BiPredicate<Path, BasicFileAttributes> biPredicate)
     {
         Path start = path.toAbsolutePath();
-        sourceBasedTypeSolver.add(new JavaParserTypeSolver(start, parserConfiguration));
+        importFilters.merge(start, biPredicate, BiPredicate::or);
+
+        List<SourceFile> newFiles = new ArrayList<>();
+        for (Map.Entry<Path, BasicFileAttributes> entry : findFiles(start, biPredicate).entrySet())
+        {
+            newFiles.add(addSourceFile(start, entry.getKey(), entry.getValue()));
+        }
+
+        if (!isParsingDeferred())
+        {
+            parseAll(newFiles);
+        }
+
+        writeTrace();
+        return this;
+    }
 
+    private SourceFile addSourceFile(Path start, Path file, BasicFileAttributes attributes)
+    {
+        var sourceFile = new SourceFile(start, start.relativize(file), attributes, this::parse, parsedFileCache);
+        sourceFiles.put(sourceFile.getRelativePath(), sourceFile);
+        sourceFilesByTypeName.put(sourceFile.getExpectedTypeName(), sourceFile);
+        sourceFilesByPackageName.put(sourceFile.getPackageName(), sourceFile);
+        return sourceFile;
+    }
+
+    private void removeSourceFile(SourceFile sourceFile)
+    {
+        sourceFiles.remove(sourceFile.getRelativePath(), sourceFile);
+        sourceFilesByTypeName.remove(sourceFile.getExpectedTypeName(), sourceFile);
+        sourceFilesByPackageName.remove(sourceFile.getPackageName(), sourceFile);
+        sourceFile.release();
+    }
+
+    /**
+     * @return the matching files with their attributes, in the order in which they were found
+     */
+    private Map<Path, BasicFileAttributes> findFiles(Path start, BiPredicate<Path, BasicFileAttributes> biPredicate)
+    {
+        Map<Path, BasicFileAttributes> result = new LinkedHashMap<>();
         try
         {
-            try (Stream<Path> pathStream = Files.find(start, Integer.MAX_VALUE, biPredicate))
+            Files.walkFileTree(start, new SimpleFileVisitor<>()
             {
-                pathStream.map(this::parse)
-                    .forEach(compilationUnit -> {
-                        Path absolutePath = compilationUnit.getStorage()
-                            .orElseThrow(CodeInconsistencyException::new)
-                            .getPath();
-                        Path relativePath = start.relativize(absolutePath);
-                        compilationUnits.put(relativePath, compilationUnit);
-                    });
-            }
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+                {
+                    if (biPredicate.test(file, attributes))
+                    {
+                        result.put(file, attributes);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
         }
         catch (IOException e)
         {
             throw new UncheckedIOException(e);
         }
+        return result;
+    }
 
-        return this;
+    /**
+     * Brings the bundle up to date with the directories imported so far: files modified since they were imported are
+     * parsed again when needed, new files are added and deleted files are removed. Files are considered modified if
+     * their size or modification time changed. Syntax trees of unchanged files are kept, but the caches of the symbol
+     * solver are discarded if anything changed, as they may refer to outdated declarations.
+     * <p>
+     * This must not be called while a scan is running.
+     *
+     * @return the number of files that were modified, added or removed
+     */
+    public int refresh()
+    {
+        List<SourceFile> changedFiles = new ArrayList<>();
+        List<SourceFile> newFiles = new ArrayList<>();
+        for (Map.Entry<Path, BiPredicate<Path, BasicFileAttributes>> entry : importFilters.entrySet())
+        {
+            Path start = entry.getKey();
+            Map<Path, BasicFileAttributes> foundFiles = findFiles(start, entry.getValue());
+            for (SourceFile sourceFile : List.copyOf(sourceFiles.values()))
+            {
+                if (!sourceFile.getRoot()
+                    .equals(start))
+                {
+                    continue;
+                }
+
+                BasicFileAttributes attributes = foundFiles.remove(sourceFile.getAbsolutePath());
+                if (attributes == null)
+                {
+                    removeSourceFile(sourceFile);
+                    changedFiles.add(sourceFile);
+                }
+                else if (sourceFile.refresh(attributes))
+                {
+                    changedFiles.add(sourceFile);
+                }
+            }
+
+            foundFiles.forEach((file, attributes) -> newFiles.add(addSourceFile(start, file, attributes)));
+        }
+        changedFiles.addAll(newFiles);
+
+        if (!changedFiles.isEmpty())
+        {
+            changedFiles.stream()
+                .filter(SourceFile::isPackageInfo)
+                .forEach(sourceFile -> nullnessModel.forgetPackage(sourceFile.getRelativePath()));
+            discardContexts();
+        }
+        if (!isParsingDeferred())
+        {
+            parseAll(newFiles);
+        }
+        return changedFiles.size();
+    }
+
+    private boolean isParsingDeferred()
+    {
+        return resultCache != null || streaming || parsedFileCache != null || violationLimit != Integer.MAX_VALUE;
+    }
+
+    private void parseAll(List<SourceFile> files)
+    {
+        if (parallelism == 1 || files.size() < 2)
+        {
+            files.forEach(SourceFile::getCompilationUnit);
+            return;
+        }
+
+        List<Callable<CompilationUnit>> tasks = files.stream()
+            .<Callable<CompilationUnit>>map(file -> file::getCompilationUnit)
+            .toList();
+        try (var workerPool = new WorkerPool(parallelism, "mandor-parser"))
+        {
+            workerPool.invokeAll(tasks);
+        }
     }
 
     private boolean isJavaSourceFile(Path filePath, BasicFileAttributes fileAttr)
@@ -116,7 +451,22 @@ public class SourceBundle
     {
         try
         {
-            return parseFile(path);
+            long start = System.nanoTime();
+            CompilationUnit compilationUnit = parseFile(path);
+            if (statistics != null)
+            {
+                statistics.recordParse(path, System.nanoTime() - start, compilationUnit.stream()
+                    .count());
+            }
+            if (tracer != null)
+            {
+                tracer.record(ScanTracer.PARSE,
+                    path.getFileName()
+                        .toString(),
+                    path,
+                    start);
+            }
+            return compilationUnit;
         }
         catch (IOException e)
         {
@@ -126,7 +476,24 @@ public class SourceBundle
 
     private CompilationUnit parseFile(Path path) throws IOException
     {
-        return javaParserAdapter.parse(path);
+        var event = new ParseEvent();
+        event.begin();
+
+        CompilationUnit compilationUnit = javaParserAdapters.get()
+            .parse(path);
+
+        // Attach the caches while the unit is still confined to this thread, as scanner threads may share it
+        ExpressionResolutionCache.attach(compilationUnit);
+
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.file = path.toString();
+            event.nodeCount = compilationUnit.stream()
+                .count();
+            event.commit();
+        }
+        return compilationUnit;
     }
 
     /**
@@ -135,47 +502,413 @@ public class SourceBundle
      */
     public SourceBundle verify(SourceRule rule)
     {
-        var violations = runScan(rule);
+        var limit = new ViolationLimit(violationLimit);
+        assertNoViolations(rule, runScan(rule, limit), limit);
+        return this;
+    }
+
+    /**
+     * Scans the bundle using one rule instance per thread as configured via {@link #withParallelism(int)}.
+     *
+     * @param ruleFactory supplies a new rule instance on each call, e.g. one obtained via
+     * {@link SourceRuleProvider.Loader#asFactories()}
+     *
+     * @throws AssertionError if the rule discovered violations
+     * @throws UnprocessableSourceCodeException if the rule encountered unexpected or unsupported source code constructs
+     */
+    public SourceBundle verify(Supplier<? extends SourceRule> ruleFactory)
+    {
+        // Any instance used for the scan can describe the violations, so avoid creating an extra one
+        var usedRule = new AtomicReference<SourceRule>();
+        var limit = new ViolationLimit(violationLimit);
+        List<Violation> violations = runScan(() -> {
+            SourceRule rule = ruleFactory.get();
+            usedRule.compareAndSet(null, rule);
+            return rule;
+        }, limit);
         if (!violations.isEmpty())
         {
-            throw new AssertionError("Rule '%s' was violated (%d times):%n%s".formatted(rule.getDescription(),
-                violations.size(),
-                String.join("\n", violations)));
+            assertNoViolations(Nullness.guaranteeNonNull(usedRule.get()), violations, limit);
+        }
+        return this;
+    }
+
+    /**
+     * Scans the bundle with all given rules, walking the syntax tree of each compilation unit only once for all rules
+     * that {@linkplain SourceRule#registerHandlers(NodeHandlers) register node handlers}.
+     *
+     * @throws AssertionError if any of the rules discovered violations
+     * @throws UnprocessableSourceCodeException if a rule encountered unexpected or unsupported source code constructs
+     */
+    public SourceBundle verifyAll(Collection<? extends SourceRule> rules)
+    {
+        var limit = new ViolationLimit(violationLimit);
+        Map<SourceRule, List<Violation>> violationsByRule = runScan(rules, limit);
+        String report = violationsByRule.entrySet()
+            .stream()
+            .filter(entry -> !entry.getValue()
+                .isEmpty())
+            .map(entry -> describeViolations(entry.getKey(), entry.getValue()))
+            .collect(Collectors.joining("\n\n"));
+        if (!report.isEmpty())
+        {
+            throw new AssertionError(report + describeViolationLimit(limit));
         }
 
         return this;
     }
 
+    private void assertNoViolations(SourceRule rule, List<Violation> violations, ViolationLimit limit)
+    {
+        if (!violations.isEmpty())
+        {
+            throw new AssertionError(describeViolations(rule, violations) + describeViolationLimit(limit));
+        }
+    }
+
+    private String describeViolationLimit(ViolationLimit limit)
+    {
+        if (!limit.wasCutShort())
+        {
+            return "";
+        }
+        return "%n%nThe scan was stopped after reaching the limit of %d violations.".formatted(violationLimit);
+    }
+
+    private String describeViolations(SourceRule rule, List<Violation> violations)
+    {
+        return "Rule '%s' was violated (%d times):%n%s".formatted(rule.getDescription(),
+            violations.size(),
+            violations.stream()
+                .map(Violation::getMessage)
+                .collect(Collectors.joining("\n")));
+    }
+
+    public int getFileCount()
+    {
+        return sourceFiles.size();
+    }
+
+    /**
+     * Discards everything learned by resolving symbols, so that the next scan starts out with empty caches like the
+     * first scan after importing does.
+     */
     @VisibleForTesting
-    List<String> runScan(SourceRule rule)
+    void clearResolutionCaches()
     {
-        rule.init(ruleContext);
+        discardContexts();
+    }
 
-        compilationUnits.entries()
-            .forEach(entry -> scanFile(rule, entry.getValue(), entry.getKey()));
+    /**
+     * Replaces all contexts by new ones, discarding everything learned by resolving symbols.
+     */
+    private void discardContexts()
+    {
+        ruleContext = createContext();
+        workerContexts.clear();
+        forgetSymbolSolverCaches();
+    }
 
+    /**
+     * Discards the facades that JavaParser's symbol solver keeps per type solver in a global map. Their caches are
+     * keyed by syntax nodes, and each facade refers to its type solver, so they would keep released syntax trees and
+     * discarded contexts reachable for good. New facades are created as needed, also for other bundles.
+     */
+    private static void forgetSymbolSolverCaches()
+    {
+        // Facades are created while holding this lock, but clearing them does not acquire it
+        synchronized (JavaParserFacade.class)
+        {
+            JavaParserFacade.clearInstances();
+        }
+    }
+
+    @VisibleForTesting
+    RuleContext getRuleContext()
+    {
+        return ruleContext;
+    }
+
+    /**
+     * Scans the bundle with the given rule, passing the violations of each file to the listener as soon as the file was
+     * scanned. Unlike {@link #verify(SourceRule)}, this does not keep the violations found, so a
+     * {@link ViolationWriter} can report any number of them.
+     *
+     * @throws UnprocessableSourceCodeException if the rule encountered unexpected or unsupported source code constructs
+     */
+    public SourceBundle scan(SourceRule rule, ViolationListener listener)
+    {
+        return scanAll(List.of(rule), listener);
+    }
+
+    /**
+     * Scans the bundle using one rule instance per thread as configured via {@link #withParallelism(int)}, passing the
+     * violations of each file to the listener as soon as the file was scanned. Files scanned by different threads may
+     * be reported out of order.
+     *
+     * @throws UnprocessableSourceCodeException if the rule encountered unexpected or unsupported source code constructs
+     * @see #scan(SourceRule, ViolationListener)
+     */
+    public SourceBundle scan(Supplier<? extends SourceRule> ruleFactory, ViolationListener listener)
+    {
+        var delivery = new ViolationDelivery(listener);
+        var limit = new ViolationLimit(violationLimit);
+        if (parallelism == 1)
+        {
+            scanSequentially(List.of(ruleFactory.get()), delivery, limit);
+        }
+        else
+        {
+            scanInParallel(ruleFactory, delivery, limit);
+        }
+        return this;
+    }
+
+    /**
+     * Scans the bundle with all given rules like {@link #verifyAll(Collection)} does, passing the violations of each
+     * file to the listener as soon as the file was scanned.
+     *
+     * @throws UnprocessableSourceCodeException if a rule encountered unexpected or unsupported source code constructs
+     * @see #scan(SourceRule, ViolationListener)
+     */
+    public SourceBundle scanAll(Collection<? extends SourceRule> rules, ViolationListener listener)
+    {
+        scanSequentially(List.copyOf(rules), new ViolationDelivery(listener), new ViolationLimit(violationLimit));
+        return this;
+    }
+
+    @VisibleForTesting
+    List<Violation> runScan(SourceRule rule)
+    {
+        return runScan(rule, new ViolationLimit(violationLimit));
+    }
+
+    private List<Violation> runScan(SourceRule rule, ViolationLimit limit)
+    {
+        scanSequentially(List.of(rule), null, limit);
         return rule.getViolations();
     }
 
-    private void scanFile(SourceRule rule, CompilationUnit compilationUnit, Path relativePath)
+    @VisibleForTesting
+    Map<SourceRule, List<Violation>> runScan(Collection<? extends SourceRule> rules)
+    {
+        return runScan(rules, new ViolationLimit(violationLimit));
+    }
+
+    private Map<SourceRule, List<Violation>> runScan(Collection<? extends SourceRule> rules, ViolationLimit limit)
     {
-        // Tell the context about the new compilation unit so that its helper methods work.
-        ruleContext.activate(compilationUnit, relativePath);
+        scanSequentially(List.copyOf(rules), null, limit);
 
-        // Initiate the scan itself
-        try
+        Map<SourceRule, List<Violation>> result = new LinkedHashMap<>();
+        rules.forEach(rule -> result.put(rule, rule.getViolations()));
+        return result;
+    }
+
+    private void scanSequentially(List<SourceRule> rules, @Nullable ViolationDelivery delivery, ViolationLimit limit)
+    {
+        var ruleRunner = new RuleRunner(rules, ruleContext, resultCache, statistics, tracer, delivery, limit);
+        for (SourceFile sourceFile : sourceFiles.values())
+        {
+            if (!limit.permitsFile())
+            {
+                break;
+            }
+            scan(ruleRunner, ruleContext, sourceFile);
+        }
+        writeTrace();
+    }
+
+    @VisibleForTesting
+    List<Violation> runScan(Supplier<? extends SourceRule> ruleFactory)
+    {
+        return runScan(ruleFactory, new ViolationLimit(violationLimit));
+    }
+
+    private List<Violation> runScan(Supplier<? extends SourceRule> ruleFactory, ViolationLimit limit)
+    {
+        if (parallelism == 1)
+        {
+            return runScan(ruleFactory.get(), limit);
+        }
+        return scanInParallel(ruleFactory, null, limit);
+    }
+
+    /**
+     * @return the violations found in file order, or an empty list if they were delivered instead
+     */
+    private List<Violation> scanInParallel(
+        Supplier<? extends SourceRule> ruleFactory, @Nullable ViolationDelivery delivery, ViolationLimit limit)
+    {
+        Queue<List<IndexedFile>> pendingDirectories = new ConcurrentLinkedQueue<>(groupByDirectory());
+        List<Callable<Map<Integer, List<Violation>>>> workers = getWorkerContexts().stream()
+            .<Callable<Map<Integer, List<Violation>>>>map(context -> () -> scanDirectories(ruleFactory,
+                context,
+                pendingDirectories,
+                delivery,
+                limit))
+            .toList();
+
+        Map<Integer, List<Violation>> violationsByIndex = new TreeMap<>();
+        try (var workerPool = new WorkerPool(parallelism, "mandor-scanner"))
         {
-            rule.scan(compilationUnit);
+            workerPool.invokeAll(workers)
+                .forEach(violationsByIndex::putAll);
         }
-        catch (RuntimeException e)
+        writeTrace();
+
+        return violationsByIndex.values()
+            .stream()
+            .flatMap(List::stream)
+            .toList();
+    }
+
+    /**
+     * @return one context per thread of a parallel scan
+     */
+    private List<RuleContext> getWorkerContexts()
+    {
+        while (workerContexts.size() < parallelism)
         {
-            throw new UnprocessableSourceCodeException("Rule failed to process " + ruleContext.getFilePath(), e);
+            workerContexts.add(createContext());
+        }
+        return workerContexts.subList(0, parallelism);
+    }
+
+    /**
+     * Groups the source files by directory, keeping their original order.
+     * <p>
+     * A directory is the unit of work for a scanner thread: rules may remember packages they already processed, and the
+     * package-info files of a directory are {@linkplain RuleContext#getPackageInfoFiles() consulted} while scanning the
+     * other files in it. Files sharing a relative directory but residing in different roots end up in the same group.
+     */
+    private Collection<List<IndexedFile>> groupByDirectory()
+    {
+        Map<Path, List<IndexedFile>> result = new LinkedHashMap<>();
+        int index = 0;
+        for (SourceFile sourceFile : sourceFiles.values())
+        {
+            Path directory = Objects.requireNonNullElse(sourceFile.getRelativePath()
+                .getParent(), Path.of(""));
+            result.computeIfAbsent(directory, key -> new ArrayList<>())
+                .add(new IndexedFile(index, sourceFile));
+            index++;
+        }
+        return result.values();
+    }
+
+    private Map<Integer, List<Violation>> scanDirectories(
+        Supplier<? extends SourceRule> ruleFactory,
+        RuleContext workerContext,
+        Queue<List<IndexedFile>> pendingDirectories,
+        @Nullable ViolationDelivery delivery,
+        ViolationLimit limit)
+    {
+        SourceRule rule = ruleFactory.get();
+        var ruleRunner = new RuleRunner(List.of(rule),
+            workerContext,
+            resultCache,
+            statistics,
+            tracer,
+            delivery,
+            limit);
+
+        Map<Integer, List<Violation>> result = new HashMap<>();
+        for (var directory = pendingDirectories.poll(); directory != null; directory = pendingDirectories.poll())
+        {
+            for (IndexedFile file : directory)
+            {
+                if (!limit.permitsFile())
+                {
+                    return result;
+                }
+
+                int previousCount = rule.getViolations()
+                    .size();
+                scan(ruleRunner, workerContext, file.sourceFile());
+
+                List<Violation> violations = rule.getViolations();
+                result.put(file.index(), List.copyOf(violations.subList(previousCount, violations.size())));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a context with its own type solvers. The caches of JavaParser's symbol solver are not thread-safe, so
+     * they must not be shared between threads. As JavaParser keeps these caches until they are
+     * {@linkplain #forgetSymbolSolverCaches() discarded}, contexts are kept as long as possible.
+     */
+    private RuleContext createContext()
+    {
+        Set<Path> consultedPaths = new HashSet<>();
+        var typeSolver = new CompilationUnitTypeSolver(Multimaps.unmodifiableListMultimap(sourceFilesByTypeName),
+            Multimaps.unmodifiableListMultimap(sourceFilesByPackageName),
+            consultedPaths::add,
+            new ReflectionTypeSolver(false));
+        SymbolResolver symbolSolver = new JavaSymbolSolver(typeSolver);
+        if (statistics != null || tracer != null)
+        {
+            symbolSolver = new MeasuringSymbolResolver(symbolSolver, statistics, tracer);
+        }
+
+        return new RuleContext(typeSolver,
+            symbolSolver,
+            symbolResolver,
+            this::lookupCompilationUnit,
+            sourceFiles::containsKey,
+            nullnessModel,
+            new AnnotationResolutionCache(consultedPaths, statistics),
+            consultedPaths);
+    }
+
+    private void scan(RuleRunner ruleRunner, RuleContext context, SourceFile sourceFile)
+    {
+        ruleRunner.scan(sourceFile);
+
+        if (streaming)
+        {
+            // Other threads may still be using these syntax trees, but they keep their own references.
+            Stream.concat(Stream.of(sourceFile),
+                    context.getConsultedPaths()
+                        .stream()
+                        .flatMap(path -> sourceFiles.get(path)
+                            .stream()))
+                .filter(file -> !file.isPackageInfo())
+                .forEach(SourceFile::release);
+            forgetSymbolSolverCaches();
+        }
+        else if (parsedFilesDiscarded.getAndSet(false))
+        {
+            forgetSymbolSolverCaches();
+        }
+    }
+
+    private void writeTrace()
+    {
+        if (tracer != null)
+        {
+            tracer.write();
         }
     }
 
     private Stream<CompilationUnit> lookupCompilationUnit(Path path)
     {
-        return compilationUnits.get(path)
-            .stream();
+        return sourceFiles.get(path)
+            .stream()
+            .map(SourceFile::getCompilationUnit);
+    }
+
+    /**
+     * Calculates a hash covering the content of all files residing at the given relative path. Also works if there are
+     * none, so that adding a file changes the hash as well.
+     */
+    private HashCode hashFilesAt(Path relativePath)
+    {
+        Hasher hasher = Hashing.sha256()
+            .newHasher();
+        sourceFiles.get(relativePath)
+            .forEach(sourceFile -> hasher.putBytes(sourceFile.getContentHash()
+                .asBytes()));
+        return hasher.hash();
     }
 }
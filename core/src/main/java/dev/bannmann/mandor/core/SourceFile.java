@@ -0,0 +1,281 @@
+package dev.bannmann.mandor.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import lombok.Getter;
+
+import org.jspecify.annotations.Nullable;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.google.common.base.Joiner;
+import com.google.common.cache.LoadingCache;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import com.google.common.primitives.Bytes;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * A source file imported into a {@link SourceBundle}. The file is parsed on first access unless it was parsed during the
+ * import already, and parsed again if it was {@linkplain #release() released} in the meantime.
+ * <p>
+ * If the bundle limits the number of parsed files, the syntax tree is kept in the given cache instead of in this object.
+ * Package-info files are exempt from that limit.
+ */
+final class SourceFile
+{
+    @Getter
+    private final Path root;
+
+    @Getter
+    private final Path relativePath;
+
+    private final Function<Path, CompilationUnit> parser;
+    private final @Nullable LoadingCache<SourceFile, CompilationUnit> parsedFileCache;
+
+    private @Nullable CompilationUnit compilationUnit;
+    private @Nullable HashCode contentHash;
+    private final Map<String, Boolean> tokenOccurrences = new HashMap<>();
+    private FileTime lastModifiedTime;
+    private long size;
+
+    /**
+     * @param attributes the attributes of the file at the time it was found
+     */
+    public SourceFile(
+        Path root,
+        Path relativePath,
+        BasicFileAttributes attributes,
+        Function<Path, CompilationUnit> parser,
+        @Nullable LoadingCache<SourceFile, CompilationUnit> parsedFileCache)
+    {
+        this.root = root;
+        this.relativePath = relativePath;
+        this.lastModifiedTime = attributes.lastModifiedTime();
+        this.size = attributes.size();
+        this.parser = parser;
+        this.parsedFileCache = parsedFileCache;
+    }
+
+    public Path getAbsolutePath()
+    {
+        return root.resolve(relativePath);
+    }
+
+    /**
+     * @return the package name implied by the directory of this file, or an empty string for the default package
+     */
+    public String getPackageName()
+    {
+        Path directory = relativePath.getParent();
+        if (directory == null)
+        {
+            return "";
+        }
+        return Joiner.on('.')
+            .join(directory);
+    }
+
+    /**
+     * @return the fully qualified name of the top level type this file is expected to declare, based on its path
+     */
+    public String getExpectedTypeName()
+    {
+        String simpleName = MoreFiles.getNameWithoutExtension(relativePath);
+        String packageName = getPackageName();
+        if (packageName.isEmpty())
+        {
+            return simpleName;
+        }
+        return packageName + "." + simpleName;
+    }
+
+    public boolean isPackageInfo()
+    {
+        return relativePath.endsWith("package-info.java");
+    }
+
+    public CompilationUnit getCompilationUnit()
+    {
+        if (parsedFileCache == null || isPackageInfo())
+        {
+            return getRetainedCompilationUnit();
+        }
+
+        try
+        {
+            return parsedFileCache.getUnchecked(this);
+        }
+        catch (UncheckedExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException cause)
+            {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private synchronized CompilationUnit getRetainedCompilationUnit()
+    {
+        CompilationUnit result = compilationUnit;
+        if (result == null)
+        {
+            result = parse();
+            compilationUnit = result;
+        }
+        return result;
+    }
+
+    public CompilationUnit parse()
+    {
+        return parser.apply(getAbsolutePath());
+    }
+
+    /**
+     * Drops the syntax tree of this file. It is parsed again on the next access.
+     */
+    public void release()
+    {
+        if (parsedFileCache != null)
+        {
+            parsedFileCache.invalidate(this);
+        }
+
+        synchronized (this)
+        {
+            compilationUnit = null;
+        }
+    }
+
+    /**
+     * Checks whether the file changed since it was found or last refreshed, based on the given current attributes. If
+     * so, the syntax tree, content hash and token occurrences are dropped so that they reflect the new content on the
+     * next access.
+     *
+     * @return whether the file changed
+     */
+    public boolean refresh(BasicFileAttributes attributes)
+    {
+        FileTime currentModifiedTime = attributes.lastModifiedTime();
+        synchronized (this)
+        {
+            if (currentModifiedTime.equals(lastModifiedTime) && attributes.size() == size)
+            {
+                return false;
+            }
+            lastModifiedTime = currentModifiedTime;
+            size = attributes.size();
+            contentHash = null;
+            tokenOccurrences.clear();
+        }
+        release();
+        return true;
+    }
+
+    public HashCode getContentHash()
+    {
+        synchronized (this)
+        {
+            if (contentHash != null)
+            {
+                return contentHash;
+            }
+        }
+        return rememberContentHash(readFile());
+    }
+
+    /**
+     * Tells which of the given tokens occur in the raw UTF-8 content of this file. The answers are remembered until the
+     * file {@linkplain #refresh(BasicFileAttributes) changes}, so the file is only read if some of the tokens were not
+     * searched for before.
+     */
+    public Set<String> findOccurringTokens(Set<String> tokens)
+    {
+        Set<String> result = new HashSet<>();
+        Set<String> newTokens = new HashSet<>();
+        synchronized (this)
+        {
+            for (String token : tokens)
+            {
+                Boolean occurs = tokenOccurrences.get(token);
+                if (occurs == null)
+                {
+                    newTokens.add(token);
+                }
+                else if (occurs)
+                {
+                    result.add(token);
+                }
+            }
+        }
+        if (newTokens.isEmpty())
+        {
+            return result;
+        }
+
+        byte[] content = readContent();
+        synchronized (this)
+        {
+            for (String token : newTokens)
+            {
+                boolean occurs = Bytes.indexOf(content, token.getBytes(UTF_8)) >= 0;
+                tokenOccurrences.put(token, occurs);
+                if (occurs)
+                {
+                    result.add(token);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the raw content of this file from disk, regardless of whether it is parsed. Unless it is known already, the
+     * {@linkplain #getContentHash() content hash} is calculated from the same bytes, sparing a second read.
+     */
+    private byte[] readContent()
+    {
+        byte[] content = readFile();
+        synchronized (this)
+        {
+            if (contentHash == null)
+            {
+                rememberContentHash(content);
+            }
+        }
+        return content;
+    }
+
+    private synchronized HashCode rememberContentHash(byte[] content)
+    {
+        HashCode result = Hashing.sha256()
+            .hashBytes(content);
+        contentHash = result;
+        return result;
+    }
+
+    private byte[] readFile()
+    {
+        try
+        {
+            return Files.readAllBytes(getAbsolutePath());
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
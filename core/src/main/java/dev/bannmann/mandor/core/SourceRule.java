@@ -3,12 +3,16 @@ package dev.bannmann.mandor.core;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.jspecify.annotations.Nullable;
 
+import com.github.javaparser.Position;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
+import com.github.mizool.core.exception.CodeInconsistencyException;
 import com.google.errorprone.annotations.FormatMethod;
 
 public abstract class SourceRule
@@ -20,21 +24,62 @@ public abstract class SourceRule
         EXPERIMENTAL
     }
 
-    private final List<String> violations = new ArrayList<>();
+    private final List<Violation> violations = new ArrayList<>();
     private final MemoStack<Suppression> currentSuppressions = new MemoStack<>();
+    private final String warningName = getClass().getSimpleName();
 
     private @Nullable RuleContext context;
+    private @Nullable NodeHandlers nodeHandlers;
+    private @Nullable NodeDispatcher nodeDispatcher;
 
     protected void init(RuleContext context)
     {
         this.context = context;
     }
 
-    protected abstract void scan(CompilationUnit compilationUnit);
+    /**
+     * Registers the node types this rule is interested in. Rules doing so can share a single walk of the syntax tree
+     * with other rules, see {@link SourceBundle#verifyAll(java.util.Collection)}.
+     * <p>
+     * The default implementation registers nothing, which is appropriate for rules that override
+     * {@link #scan(CompilationUnit)} instead.
+     */
+    protected void registerHandlers(NodeHandlers handlers)
+    {
+    }
+
+    final NodeHandlers getNodeHandlers()
+    {
+        if (nodeHandlers == null)
+        {
+            nodeHandlers = new NodeHandlers();
+            registerHandlers(nodeHandlers);
+        }
+        return nodeHandlers;
+    }
+
+    final boolean hasNodeHandlers()
+    {
+        return !getNodeHandlers().isEmpty();
+    }
+
+    /**
+     * Scans the given compilation unit. The default implementation walks the syntax tree and invokes the handlers set up
+     * by {@link #registerHandlers(NodeHandlers)}.
+     */
+    protected void scan(CompilationUnit compilationUnit)
+    {
+        if (nodeDispatcher == null)
+        {
+            nodeDispatcher = new NodeDispatcher(List.of(this));
+        }
+        nodeDispatcher.traverse(compilationUnit);
+    }
 
     protected final void trackSuppressibleScope(NodeWithAnnotations<?> nodeWithAnnotations, Runnable action)
     {
-        Nodes.tryGetSuppressionAnnotation(nodeWithAnnotations, getClass().getSimpleName())
+        getContext().getSuppressionIndex()
+            .findSuppression(nodeWithAnnotations, warningName)
             .ifPresentOrElse(annotationExpr -> runTracked(annotationExpr, action), action);
     }
 
@@ -47,12 +92,22 @@ public abstract class SourceRule
 
             if (!suppression.wasHit())
             {
-                violations.add("%s needlessly suppresses %s in %s".formatted(Nodes.obtainEnclosingTopLevelTypeName(
-                    annotationExpr), getClass().getSimpleName(), getContext().getCodeLocation(annotationExpr)));
+                violations.add(createViolation(annotationExpr,
+                    "%s needlessly suppresses %s",
+                    Nodes.obtainEnclosingTopLevelTypeName(annotationExpr),
+                    warningName));
             }
         }
     }
 
+    /**
+     * The name used to suppress this rule via {@code @SuppressWarnings}.
+     */
+    final String getWarningName()
+    {
+        return warningName;
+    }
+
     protected final RuleContext getContext()
     {
         if (context == null)
@@ -62,20 +117,101 @@ public abstract class SourceRule
         return context;
     }
 
+    /**
+     * Reports a violation with the given message and no position, as all violations were reported before they had
+     * one. Rules using this method typically mention the {@linkplain RuleContext#getCodeLocation(Node) code location}
+     * in the message themselves.
+     *
+     * @deprecated Use {@link #addViolation(Node, String, Object...)} so that the position is available to tools, or
+     * {@link #addFileViolation(String, Object...)} for violations concerning the file as a whole.
+     */
+    @Deprecated
     @FormatMethod
     protected final void addViolation(String message, Object... args)
+    {
+        addFileViolation(message, args);
+    }
+
+    /**
+     * Reports a violation concerning the current file as a whole, so it has no position.
+     */
+    @FormatMethod
+    protected final void addFileViolation(String message, Object... args)
+    {
+        currentSuppressions.accessLastMemoContents()
+            .ifPresentOrElse(Suppression::trackHit,
+                () -> violations.add(Violation.of(warningName,
+                    getContext().getRoot(),
+                    getContext().getRelativePath(),
+                    0,
+                    0,
+                    message,
+                    args)));
+    }
+
+    /**
+     * Reports a violation at the given node. When rendered, the message is followed by the file name and line.
+     */
+    @FormatMethod
+    protected final void addViolation(Node node, String message, Object... args)
     {
         currentSuppressions.accessLastMemoContents()
-            .ifPresentOrElse(Suppression::trackHit, () -> violations.add(message.formatted(args)));
+            .ifPresentOrElse(Suppression::trackHit, () -> violations.add(createViolation(node, message, args)));
     }
 
-    public final List<String> getViolations()
+    @FormatMethod
+    private Violation createViolation(Node node, String message, Object... args)
+    {
+        Position position = node.getRange()
+            .map(range -> range.begin)
+            .orElseThrow(CodeInconsistencyException::new);
+        return Violation.of(warningName,
+            getContext().getRoot(),
+            getContext().getRelativePath(),
+            position.line,
+            position.column,
+            message,
+            args);
+    }
+
+    public final List<Violation> getViolations()
     {
         return Collections.unmodifiableList(violations);
     }
 
+    final void addCachedViolations(List<Violation> cachedViolations)
+    {
+        violations.addAll(cachedViolations);
+    }
+
+    /**
+     * Discards all but the given number of violations, keeping the ones reported first.
+     */
+    final void trimViolations(int count)
+    {
+        violations.subList(count, violations.size())
+            .clear();
+    }
+
     public abstract String getDescription();
 
+    /**
+     * Text that a file must contain for this rule to report violations in it, e.g. the name of an annotation the rule
+     * inspects. Files containing none of these tokens are not scanned by this rule, unless they mention the simple name
+     * of this rule, which might be suppressed there. If no rule of a scan needs to scan a file, the file is not parsed
+     * either, provided that the {@link SourceBundle} defers parsing, e.g. because it
+     * {@linkplain SourceBundle#withStreaming() streams} or uses a
+     * {@linkplain SourceBundle#withResultCache(java.nio.file.Path) result cache}. Otherwise, all files are parsed while
+     * importing them.
+     * <p>
+     * Tokens are matched against the raw UTF-8 content of the file, so Unicode escapes in the source code are not taken
+     * into account. The default implementation returns an empty set, meaning that the rule scans all files.
+     */
+    public Set<String> getTriggerTokens()
+    {
+        return Set.of();
+    }
+
     /**
      * The status of this rule when {@linkplain SourceRuleProvider auto discovery} is used.
      */
@@ -83,4 +219,24 @@ public abstract class SourceRule
     {
         return Status.OPTIONAL;
     }
+
+    /**
+     * Identifies the revision of this rule's logic for the {@linkplain SourceBundle#withResultCache(java.nio.file.Path)
+     * result cache}. Implementations need to return a new value whenever a change could alter the violations reported
+     * for unchanged source code.
+     */
+    public String getVersion()
+    {
+        return "1";
+    }
+
+    /**
+     * Whether the violations this rule reports for a file depend only on the content of that file and of the files it
+     * {@linkplain RuleContext#lookup(java.nio.file.Path) looked up} or resolved types from. Rules that carry state from
+     * one file to the next must return {@code false} so that their results are never cached.
+     */
+    public boolean isCacheable()
+    {
+        return true;
+    }
 }
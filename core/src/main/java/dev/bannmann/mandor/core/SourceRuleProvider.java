@@ -9,6 +9,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -17,6 +18,7 @@ import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
 import com.github.mizool.core.MetaInfServices;
+import com.github.mizool.core.exception.CodeInconsistencyException;
 import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.CheckReturnValue;
 import dev.bannmann.mandor.core.SourceRule.Status;
@@ -62,6 +64,15 @@ public class SourceRuleProvider
          * @throws NoSuchElementException if the classpath contains no rules matching the given criteria
          */
         Object[][] asDataProvider();
+
+        /**
+         * Gets factories for the matching source rules, e.g. for use with {@link SourceBundle#verify(Supplier)}.
+         *
+         * @return an immutable list of factories, each of which creates a new rule instance on every call
+         *
+         * @throws NoSuchElementException if the classpath contains no rules matching the given criteria
+         */
+        List<Supplier<SourceRule>> asFactories();
     }
 
     @NoArgsConstructor
@@ -147,6 +158,30 @@ public class SourceRuleProvider
             }
             return result;
         }
+
+        @Override
+        public List<Supplier<SourceRule>> asFactories()
+        {
+            return asList().stream()
+                .map(SourceRule::getClass)
+                .map(LoaderImpl::toFactory)
+                .toList();
+        }
+
+        private static Supplier<SourceRule> toFactory(Class<? extends SourceRule> ruleClass)
+        {
+            return () -> {
+                try
+                {
+                    return ruleClass.getDeclaredConstructor()
+                        .newInstance();
+                }
+                catch (ReflectiveOperationException e)
+                {
+                    throw new CodeInconsistencyException("Could not instantiate " + ruleClass.getName(), e);
+                }
+            };
+        }
     }
 
     public static LoaderInitial load()
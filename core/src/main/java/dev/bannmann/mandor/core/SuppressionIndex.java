@@ -0,0 +1,33 @@
+package dev.bannmann.mandor.core;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * The warnings suppressed via {@code @SuppressWarnings} in one compilation unit, shared by all rules scanning it. The
+ * warning names of each annotation are extracted only once, when a rule first asks about its declaration.
+ */
+@NotThreadSafe
+final class SuppressionIndex
+{
+    /**
+     * Keyed by identity, as equal annotations on different declarations must not share an entry.
+     */
+    private final Map<AnnotationExpr, List<String>> warningNamesByAnnotation = new IdentityHashMap<>();
+
+    /**
+     * @return the {@code @SuppressWarnings} annotation of the given declaration if it suppresses the given warning
+     */
+    public Optional<AnnotationExpr> findSuppression(NodeWithAnnotations<?> declaration, String warningName)
+    {
+        return declaration.getAnnotationByClass(SuppressWarnings.class)
+            .filter(annotation -> warningNamesByAnnotation.computeIfAbsent(annotation, Nodes::getSuppressedWarnings)
+                .contains(warningName));
+    }
+}
@@ -0,0 +1,67 @@
+package dev.bannmann.mandor.core;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.resolution.SymbolResolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.types.ResolvedType;
+
+/**
+ * Delegates to the symbol resolver of the {@link RuleContext} active on the calling thread.
+ * <p>
+ * Every compilation unit of a {@link SourceBundle} refers to this resolver. That way, units can be shared between
+ * threads although the caches of JavaParser's symbol solver are not thread-safe.
+ */
+final class ThreadBoundSymbolResolver implements SymbolResolver
+{
+    private final ThreadLocal<SymbolResolver> delegates = new ThreadLocal<>();
+
+    void bind(SymbolResolver symbolResolver)
+    {
+        delegates.set(symbolResolver);
+    }
+
+    /**
+     * Removes the binding of the calling thread. Must be called once the thread is done with the bundle, as the symbol
+     * resolver indirectly refers to the bundle and would otherwise keep it reachable for as long as the thread lives.
+     */
+    void unbind()
+    {
+        delegates.remove();
+    }
+
+    private SymbolResolver getDelegate()
+    {
+        SymbolResolver result = delegates.get();
+        if (result == null)
+        {
+            throw new IllegalStateException("No rule context is active on this thread");
+        }
+        return result;
+    }
+
+    @Override
+    public <T> T resolveDeclaration(Node node, Class<T> resultClass)
+    {
+        return getDelegate().resolveDeclaration(node, resultClass);
+    }
+
+    @Override
+    public <T> T toResolvedType(Type javaparserType, Class<T> resultClass)
+    {
+        return getDelegate().toResolvedType(javaparserType, resultClass);
+    }
+
+    @Override
+    public ResolvedType calculateType(Expression expression)
+    {
+        return getDelegate().calculateType(expression);
+    }
+
+    @Override
+    public ResolvedReferenceTypeDeclaration toTypeDeclaration(Node node)
+    {
+        return getDelegate().toTypeDeclaration(node);
+    }
+}
@@ -0,0 +1,98 @@
+package dev.bannmann.mandor.core;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A violation reported by a {@link SourceRule}. The message is only formatted when the violation is
+ * {@linkplain #getMessage() rendered}.
+ *
+ * @param rule the simple class name of the rule, which is also used to suppress it via {@code @SuppressWarnings}
+ * @param root the directory the source file was imported from
+ * @param file the path of the source file, relative to {@code root}
+ * @param line the line of the offending code, or 0 if the violation has no position, e.g. because it concerns the file
+ * as a whole
+ * @param column the column of the offending code, or 0 if the violation has no position
+ * @param messageTemplate the message as a format string, see {@link String#format(String, Object...)}
+ * @param arguments the arguments for the message template. Strings, characters, booleans and the immutable number types
+ * of the JDK are kept as they are, so that conversions like {@code %c}, {@code %d} and {@code %f} still apply. Other
+ * objects are converted to strings so that violations never keep syntax trees alive.
+ */
+public record Violation(
+    String rule, Path root, Path file, int line, int column, String messageTemplate, List<Object> arguments)
+{
+    /**
+     * Matched exactly, as subclasses of {@link BigInteger} and {@link BigDecimal} could be mutable.
+     */
+    private static final Set<Class<?>> KEPT_ARGUMENT_TYPES = Set.of(String.class,
+        Character.class,
+        Boolean.class,
+        Byte.class,
+        Short.class,
+        Integer.class,
+        Long.class,
+        Float.class,
+        Double.class,
+        BigInteger.class,
+        BigDecimal.class);
+
+    public Violation
+    {
+        arguments = arguments.stream()
+            .map(Violation::captureArgument)
+            .toList();
+    }
+
+    static Violation of(
+        String rule, Path root, Path file, int line, int column, String messageTemplate, Object... arguments)
+    {
+        return new Violation(rule, root, file, line, column, messageTemplate, Arrays.asList(arguments));
+    }
+
+    private static Object captureArgument(@Nullable Object argument)
+    {
+        if (argument != null && KEPT_ARGUMENT_TYPES.contains(argument.getClass()))
+        {
+            return argument;
+        }
+        return String.valueOf(argument);
+    }
+
+    public boolean hasPosition()
+    {
+        return line > 0;
+    }
+
+    /**
+     * @return the formatted message without any information on the position
+     */
+    public String getText()
+    {
+        return messageTemplate.formatted(arguments.toArray());
+    }
+
+    /**
+     * @return the formatted message followed by the file name and line, if any
+     */
+    public String getMessage()
+    {
+        String text = getText();
+        if (!hasPosition())
+        {
+            return text;
+        }
+        return "%s in (%s:%d)".formatted(text, file.getFileName(), line);
+    }
+
+    @Override
+    public String toString()
+    {
+        return getMessage();
+    }
+}
@@ -0,0 +1,19 @@
+package dev.bannmann.mandor.core;
+
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Passes violations to a {@link ViolationListener} on behalf of all threads of a scan, one file at a time.
+ */
+@RequiredArgsConstructor
+final class ViolationDelivery
+{
+    private final ViolationListener listener;
+
+    public synchronized void deliver(List<Violation> violations)
+    {
+        violations.forEach(listener::onViolation);
+    }
+}
@@ -0,0 +1,58 @@
+package dev.bannmann.mandor.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the violations reported by all threads of a scan against the maximum set via
+ * {@link SourceBundle#withViolationLimit(int)}.
+ */
+final class ViolationLimit
+{
+    private final int maximum;
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * Whether violations were discarded or files skipped. Reaching the limit with the last violation of the last file
+     * does not cut the scan short.
+     */
+    private volatile boolean cutShort;
+
+    public ViolationLimit(int maximum)
+    {
+        this.maximum = maximum;
+    }
+
+    /**
+     * @return how many of the given number of newly found violations may still be reported
+     */
+    public int claim(int violationCount)
+    {
+        int previousCount = count.getAndAccumulate(violationCount,
+            (current, added) -> (int) Math.min((long) current + added, maximum));
+        int allowance = Math.max(0, Math.min(violationCount, maximum - previousCount));
+        if (allowance < violationCount)
+        {
+            cutShort = true;
+        }
+        return allowance;
+    }
+
+    /**
+     * Tells whether another file may be scanned. Once the limit is reached, the file is to be skipped, which cuts the
+     * scan short.
+     */
+    public boolean permitsFile()
+    {
+        if (count.get() >= maximum)
+        {
+            cutShort = true;
+            return false;
+        }
+        return true;
+    }
+
+    public boolean wasCutShort()
+    {
+        return cutShort;
+    }
+}
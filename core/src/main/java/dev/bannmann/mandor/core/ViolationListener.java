@@ -0,0 +1,14 @@
+package dev.bannmann.mandor.core;
+
+/**
+ * Receives violations while a {@link SourceBundle} is being scanned, see
+ * {@link SourceBundle#scanAll(java.util.Collection, ViolationListener)}.
+ * <p>
+ * The violations of each file are delivered together once all rules finished scanning it. Calls never overlap, even if
+ * the scan uses several threads, so implementations need not be thread-safe.
+ */
+@FunctionalInterface
+public interface ViolationListener
+{
+    void onViolation(Violation violation);
+}
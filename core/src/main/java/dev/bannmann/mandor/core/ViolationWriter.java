@@ -0,0 +1,81 @@
+package dev.bannmann.mandor.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes violations to a file or stream as they are {@linkplain ViolationListener received}, so that reports of any
+ * size can be produced without keeping the violations in memory. Closing the writer completes the report and closes
+ * the underlying stream. Closing it again has no effect.
+ *
+ * @see SourceBundle#scanAll(java.util.Collection, ViolationListener)
+ */
+public abstract class ViolationWriter implements ViolationListener, Closeable
+{
+    private final Writer writer;
+
+    private boolean closed;
+
+    ViolationWriter(Writer writer)
+    {
+        this.writer = writer;
+    }
+
+    static Writer open(Path file)
+    {
+        try
+        {
+            return Files.newBufferedWriter(file);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public final void onViolation(Violation violation)
+    {
+        write(formatViolation(violation));
+    }
+
+    protected abstract String formatViolation(Violation violation);
+
+    protected abstract String getEnd();
+
+    final void write(String text)
+    {
+        try
+        {
+            writer.write(text);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public final void close()
+    {
+        if (closed)
+        {
+            return;
+        }
+        closed = true;
+
+        write(getEnd());
+        try
+        {
+            writer.close();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
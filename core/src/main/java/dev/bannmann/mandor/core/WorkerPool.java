@@ -0,0 +1,86 @@
+package dev.bannmann.mandor.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Fixed-size pool of daemon threads that hands back task results in submission order, regardless of the order in which
+ * the tasks complete.
+ */
+final class WorkerPool implements AutoCloseable
+{
+    private final ExecutorService executor;
+
+    public WorkerPool(int threadCount, String threadNamePrefix)
+    {
+        executor = Executors.newFixedThreadPool(threadCount,
+            new ThreadFactoryBuilder().setNameFormat(threadNamePrefix + "-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * Runs the given tasks and waits for all of them to complete.
+     *
+     * @return the task results, in the same order as the tasks
+     *
+     * @throws RuntimeException if any of the tasks failed. Exceptions thrown by a task are rethrown as-is if unchecked.
+     */
+    public <T> List<T> invokeAll(List<? extends Callable<T>> tasks)
+    {
+        List<Future<T>> futures = tasks.stream()
+            .map(executor::submit)
+            .toList();
+
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures)
+        {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    private static <T> T await(Future<T> future)
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread()
+                .interrupt();
+            throw new IllegalStateException("Interrupted while waiting for worker", e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException)
+            {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error)
+            {
+                throw error;
+            }
+            throw new UncheckedExecutionException(cause);
+        }
+    }
+
+    /**
+     * Stops the pool, interrupting tasks that are still running.
+     */
+    @Override
+    public void close()
+    {
+        executor.shutdownNow();
+    }
+}
@@ -1,63 +1,28 @@
 package dev.bannmann.mandor.core.rules;
 
+import java.util.Set;
+
 import org.kohsuke.MetaInfServices;
 
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.stmt.AssertStmt;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import dev.bannmann.mandor.core.NodeHandlers;
 import dev.bannmann.mandor.core.Nodes;
 import dev.bannmann.mandor.core.SourceRule;
 
 @MetaInfServices
 public class AssertStatementUsage extends SourceRule
 {
-    private class Visitor extends VoidVisitorAdapter<Void>
+    @Override
+    protected void registerHandlers(NodeHandlers handlers)
     {
-        @Override
-        public void visit(AssertStmt node, Void arg)
-        {
-            super.visit(node, arg);
-
-            addViolation("%s contains an assert statement in %s",
-                Nodes.obtainEnclosingTopLevelTypeName(node),
-                getContext().getCodeLocation(node));
-        }
-
-        @Override
-        public void visit(ClassOrInterfaceDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
-
-        @Override
-        public void visit(FieldDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
-
-        @Override
-        public void visit(ConstructorDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
-
-        @Override
-        public void visit(MethodDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+        handlers.on(AssertStmt.class, this::process);
     }
 
-    private final Visitor visitor = new Visitor();
-
-    @Override
-    protected void scan(CompilationUnit compilationUnit)
+    private void process(AssertStmt node)
     {
-        compilationUnit.accept(visitor, null);
+        addViolation(node,
+            "%s contains an assert statement",
+            Nodes.obtainEnclosingTopLevelTypeName(node));
     }
 
     @Override
@@ -66,6 +31,12 @@ public class AssertStatementUsage extends SourceRule
         return "The Java 'assert' statement should not be used";
     }
 
+    @Override
+    public Set<String> getTriggerTokens()
+    {
+        return Set.of("assert");
+    }
+
     @Override
     public String toString()
     {
@@ -2,156 +2,124 @@ package dev.bannmann.mandor.core.rules;
 
 import org.kohsuke.MetaInfServices;
 
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.AssignExpr;
 import com.github.javaparser.ast.expr.BinaryExpr;
 import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.NameExpr;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.PrimitiveType;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import com.github.javaparser.resolution.types.ResolvedPrimitiveType;
 import com.github.javaparser.resolution.types.ResolvedReferenceType;
 import com.github.javaparser.resolution.types.ResolvedType;
 import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserVariableDeclaration;
+import dev.bannmann.mandor.core.NodeHandlers;
 import dev.bannmann.mandor.core.Nodes;
 import dev.bannmann.mandor.core.SourceRule;
+import dev.bannmann.mandor.core.UnprocessableSourceCodeException;
 
 @MetaInfServices
 public class BitwiseOperatorUsage extends SourceRule
 {
-    private class Visitor extends VoidVisitorAdapter<Void>
+    @Override
+    protected void registerHandlers(NodeHandlers handlers)
     {
-        @Override
-        public void visit(BinaryExpr expression, Void arg)
-        {
-            super.visit(expression, arg);
+        handlers.on(BinaryExpr.class, this::processBinaryExpression);
+        handlers.on(AssignExpr.class, this::processAssignment);
+    }
 
-            switch (expression.getOperator())
+    private void processBinaryExpression(BinaryExpr expression)
+    {
+        switch (expression.getOperator())
+        {
+            case BINARY_AND, BINARY_OR, LEFT_SHIFT, SIGNED_RIGHT_SHIFT, UNSIGNED_RIGHT_SHIFT -> process(expression);
+            case XOR ->
             {
-                case BINARY_AND, BINARY_OR, LEFT_SHIFT, SIGNED_RIGHT_SHIFT, UNSIGNED_RIGHT_SHIFT -> process(expression);
-                case XOR ->
-                {
-                    if (!(isBoolean(expression.getLeft()) && isBoolean(expression.getRight())))
-                    {
-                        process(expression);
-                    }
-                }
-                default ->
+                if (!(isBoolean(expression.getLeft()) && isBoolean(expression.getRight())))
                 {
-                    // Other operators are fine, nothing to do.
+                    process(expression);
                 }
             }
+            default ->
+            {
+                // Other operators are fine, nothing to do.
+            }
         }
+    }
 
-        private void process(Expression expression)
-        {
-            var node = expression.getParentNode()
-                .orElseThrow(() -> new IllegalArgumentException("%s doesn't seem to have a parent node".formatted(
-                    expression)));
+    private void process(Expression expression)
+    {
+        var node = expression.getParentNode()
+            .orElseThrow(() -> new IllegalArgumentException("%s doesn't seem to have a parent node".formatted(
+                expression)));
 
-            addViolation("%s uses bitwise operator in %s",
-                Nodes.obtainEnclosingTopLevelTypeName(node),
-                getContext().getCodeLocation(node));
-        }
+        addViolation(node,
+            "%s uses bitwise operator",
+            Nodes.obtainEnclosingTopLevelTypeName(node));
+    }
 
-        private boolean isBoolean(Expression expression)
-        {
-            var resolvedType = expression.calculateResolvedType();
-            return isPrimitiveBoolean(resolvedType) || isReferenceBoolean(resolvedType);
-        }
+    private boolean isBoolean(Expression expression)
+    {
+        var resolvedType = getContext().findResolvedType(expression)
+            .orElseThrow(() -> new UnprocessableSourceCodeException("Cannot resolve type of %s in %s".formatted(
+                expression,
+                getContext().getCodeLocation(expression))));
+        return isPrimitiveBoolean(resolvedType) || isReferenceBoolean(resolvedType);
+    }
 
-        private boolean isReferenceBoolean(ResolvedType resolvedType)
-        {
-            return resolvedType instanceof ResolvedReferenceType resolvedReferenceType &&
-                   resolvedReferenceType.hasName() &&
-                   resolvedReferenceType.getQualifiedName()
-                       .equals(Boolean.class.getCanonicalName());
-        }
+    private boolean isReferenceBoolean(ResolvedType resolvedType)
+    {
+        return resolvedType instanceof ResolvedReferenceType resolvedReferenceType &&
+               resolvedReferenceType.hasName() &&
+               resolvedReferenceType.getQualifiedName()
+                   .equals(Boolean.class.getCanonicalName());
+    }
 
-        private boolean isPrimitiveBoolean(ResolvedType resolvedType)
-        {
-            return resolvedType instanceof ResolvedPrimitiveType resolvedPrimitiveType &&
-                   resolvedPrimitiveType.isBoolean();
-        }
+    private boolean isPrimitiveBoolean(ResolvedType resolvedType)
+    {
+        return resolvedType instanceof ResolvedPrimitiveType resolvedPrimitiveType &&
+               resolvedPrimitiveType.isBoolean();
+    }
 
-        @Override
-        public void visit(AssignExpr expression, Void arg)
+    private void processAssignment(AssignExpr expression)
+    {
+        switch (expression.getOperator())
         {
-            super.visit(expression, arg);
-
-            switch (expression.getOperator())
+            case BINARY_AND, BINARY_OR, LEFT_SHIFT, SIGNED_RIGHT_SHIFT, UNSIGNED_RIGHT_SHIFT -> process(expression);
+            case XOR ->
             {
-                case BINARY_AND, BINARY_OR, LEFT_SHIFT, SIGNED_RIGHT_SHIFT, UNSIGNED_RIGHT_SHIFT -> process(expression);
-                case XOR ->
+                if (!isBooleanAssignment(expression))
                 {
-                    if (!isBooleanAssignment(expression))
-                    {
-                        process(expression);
-                    }
+                    process(expression);
                 }
-                default ->
-                {
-                    // Other operators are fine, nothing to do.
-                }
-            }
-        }
-
-        private boolean isBooleanAssignment(AssignExpr expression)
-        {
-            NameExpr targetNameExpression = (NameExpr) expression.getTarget();
-            JavaParserVariableDeclaration resolve = (JavaParserVariableDeclaration) targetNameExpression.resolve();
-            var type = resolve.getVariableDeclarator()
-                .getType();
-            if (type.equals(PrimitiveType.booleanType()))
-            {
-                return true;
             }
-
-            if (!(type instanceof ClassOrInterfaceType classOrInterfaceType))
+            default ->
             {
-                return false;
+                // Other operators are fine, nothing to do.
             }
-
-            return classOrInterfaceType.getNameAsString()
-                .equals("Boolean");
-        }
-
-        @Override
-        public void visit(ClassOrInterfaceDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
-
-        @Override
-        public void visit(FieldDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
         }
+    }
 
-        @Override
-        public void visit(ConstructorDeclaration n, Void arg)
+    private boolean isBooleanAssignment(AssignExpr expression)
+    {
+        NameExpr targetNameExpression = (NameExpr) expression.getTarget();
+        var resolve = (JavaParserVariableDeclaration) getContext().findDeclaration(targetNameExpression)
+            .orElseThrow(() -> new UnprocessableSourceCodeException("Cannot resolve %s in %s".formatted(
+                targetNameExpression,
+                getContext().getCodeLocation(targetNameExpression))));
+        var type = resolve.getVariableDeclarator()
+            .getType();
+        if (type.equals(PrimitiveType.booleanType()))
         {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
+            return true;
         }
 
-        @Override
-        public void visit(MethodDeclaration n, Void arg)
+        if (!(type instanceof ClassOrInterfaceType classOrInterfaceType))
         {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
+            return false;
         }
-    }
 
-    private final Visitor visitor = new Visitor();
-
-    @Override
-    protected void scan(CompilationUnit compilationUnit)
-    {
-        compilationUnit.accept(visitor, null);
+        return classOrInterfaceType.getNameAsString()
+            .equals("Boolean");
     }
 
     @Override
@@ -1,16 +1,12 @@
 package dev.bannmann.mandor.core.rules;
 
 import java.util.List;
+import java.util.Set;
 
 import org.jspecify.annotations.Nullable;
 import org.kohsuke.MetaInfServices;
 
-import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.VariableDeclarator;
 import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.ast.expr.Expression;
@@ -19,126 +15,90 @@ import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.expr.NameExpr;
 import com.github.javaparser.ast.expr.SimpleName;
 import com.github.javaparser.ast.stmt.ExpressionStmt;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import com.github.mizool.core.exception.CodeInconsistencyException;
+import dev.bannmann.mandor.core.NodeHandlers;
 import dev.bannmann.mandor.core.Nodes;
 import dev.bannmann.mandor.core.SourceRule;
 
 @MetaInfServices
 public final class MalformedExhaustiveSwitch extends SourceRule
 {
-    private class Visitor extends VoidVisitorAdapter<Void>
+    @Override
+    protected void registerHandlers(NodeHandlers handlers)
     {
-        @Override
-        public void visit(MarkerAnnotationExpr markerAnnotation, Void arg)
-        {
-            process(markerAnnotation);
-            super.visit(markerAnnotation, arg);
-        }
+        handlers.on(MarkerAnnotationExpr.class, this::process);
+    }
 
-        private void process(AnnotationExpr annotation)
+    private void process(AnnotationExpr annotation)
+    {
+        if (!annotation.getNameAsString()
+            .equals("ExhaustiveSwitch"))
         {
-            if (!annotation.getNameAsString()
-                .equals("ExhaustiveSwitch"))
-            {
-                return;
-            }
-
-            if (!isUsedCorrectly(annotation))
-            {
-                addViolation("%s uses @ExhaustiveSwitch incorrectly in %s",
-                    Nodes.obtainEnclosingTopLevelTypeName(annotation),
-                    getContext().getCodeLocation(annotation));
-            }
+            return;
         }
 
-        private boolean isUsedCorrectly(AnnotationExpr annotation)
+        if (!isUsedCorrectly(annotation))
         {
-            Node assignmentNode = annotation.getParentNode()
-                .orElseThrow(CodeInconsistencyException::new);
-
-            List<Node> nodes = assignmentNode.getChildNodes();
-            if (nodes.size() != 2 || Nodes.areDifferent(nodes.get(0), annotation) ||
-                !(nodes.get(1) instanceof VariableDeclarator variableDeclarator) ||
-                variableDeclarator.getInitializer()
-                    .filter(Expression::isSwitchExpr)
-                    .isEmpty())
-            {
-                return false;
-            }
-
-            SimpleName assignedVariableName = variableDeclarator.getName();
-
-            ExpressionStmt assignmentStatement = Nodes.findAncestor(assignmentNode, ExpressionStmt.class)
-                .orElseThrow(CodeInconsistencyException::new);
-
-            return getNextSiblingNode(assignmentStatement) instanceof ExpressionStmt nextStatement &&
-                   isMethodCallViaVariable(nextStatement, assignedVariableName);
+            addViolation(annotation,
+                "%s uses @ExhaustiveSwitch incorrectly",
+                Nodes.obtainEnclosingTopLevelTypeName(annotation));
         }
+    }
 
-        private @Nullable Node getNextSiblingNode(Node startingNode)
+    private boolean isUsedCorrectly(AnnotationExpr annotation)
+    {
+        Node assignmentNode = annotation.getParentNode()
+            .orElseThrow(CodeInconsistencyException::new);
+
+        List<Node> nodes = assignmentNode.getChildNodes();
+        if (nodes.size() != 2 || Nodes.areDifferent(nodes.get(0), annotation) ||
+            !(nodes.get(1) instanceof VariableDeclarator variableDeclarator) ||
+            variableDeclarator.getInitializer()
+                .filter(Expression::isSwitchExpr)
+                .isEmpty())
         {
-            return startingNode.getParentNode()
-                .orElseThrow(CodeInconsistencyException::new)
-                .getChildNodes()
-                .stream()
-                .dropWhile(node -> Nodes.areDifferent(node, startingNode))
-                .skip(1)
-                .findFirst()
-                .orElse(null);
+            return false;
         }
 
-        private boolean isMethodCallViaVariable(ExpressionStmt subsequentStatement, SimpleName variableName)
-        {
-            return getFirstExpressionOfMethodCall(subsequentStatement) instanceof NameExpr methodnameExpr &&
-                   methodnameExpr.getName()
-                       .equals(variableName);
-        }
+        SimpleName assignedVariableName = variableDeclarator.getName();
 
-        private @Nullable Node getFirstExpressionOfMethodCall(ExpressionStmt expressionStmt)
-        {
-            if (expressionStmt.getExpression() instanceof MethodCallExpr methodCall &&
-                methodCall.getChildNodes()
-                    .size() >= 2)
-            {
-                return methodCall.getChildNodes()
-                    .get(0);
-            }
-
-            return null;
-        }
+        ExpressionStmt assignmentStatement = Nodes.findAncestor(assignmentNode, ExpressionStmt.class)
+            .orElseThrow(CodeInconsistencyException::new);
 
-        @Override
-        public void visit(ClassOrInterfaceDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+        return getNextSiblingNode(assignmentStatement) instanceof ExpressionStmt nextStatement &&
+               isMethodCallViaVariable(nextStatement, assignedVariableName);
+    }
 
-        @Override
-        public void visit(FieldDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+    private @Nullable Node getNextSiblingNode(Node startingNode)
+    {
+        return startingNode.getParentNode()
+            .orElseThrow(CodeInconsistencyException::new)
+            .getChildNodes()
+            .stream()
+            .dropWhile(node -> Nodes.areDifferent(node, startingNode))
+            .skip(1)
+            .findFirst()
+            .orElse(null);
+    }
 
-        @Override
-        public void visit(ConstructorDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+    private boolean isMethodCallViaVariable(ExpressionStmt subsequentStatement, SimpleName variableName)
+    {
+        return getFirstExpressionOfMethodCall(subsequentStatement) instanceof NameExpr methodnameExpr &&
+               methodnameExpr.getName()
+                   .equals(variableName);
+    }
 
-        @Override
-        public void visit(MethodDeclaration n, Void arg)
+    private @Nullable Node getFirstExpressionOfMethodCall(ExpressionStmt expressionStmt)
+    {
+        if (expressionStmt.getExpression() instanceof MethodCallExpr methodCall &&
+            methodCall.getChildNodes()
+                .size() >= 2)
         {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
+            return methodCall.getChildNodes()
+                .get(0);
         }
-    }
 
-    private final Visitor visitor = new Visitor();
-
-    @Override
-    protected void scan(CompilationUnit compilationUnit)
-    {
-        compilationUnit.accept(visitor, null);
+        return null;
     }
 
     @Override
@@ -148,6 +108,12 @@ public final class MalformedExhaustiveSwitch extends SourceRule
                "call on it";
     }
 
+    @Override
+    public Set<String> getTriggerTokens()
+    {
+        return Set.of("ExhaustiveSwitch");
+    }
+
     @Override
     public String toString()
     {
@@ -3,59 +3,61 @@ package dev.bannmann.mandor.core.rules;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.NullUnmarked;
 import org.kohsuke.MetaInfServices;
 
-import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.PackageDeclaration;
 import com.github.javaparser.ast.expr.AnnotationExpr;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
-import com.github.javaparser.resolution.declarations.ResolvedTypeDeclaration;
 import com.google.errorprone.annotations.Keep;
 import dev.bannmann.labs.annotations.ImplementationNote;
+import dev.bannmann.mandor.core.NodeHandlers;
+import dev.bannmann.mandor.core.NullnessModel.Nullness;
 import dev.bannmann.mandor.core.SourceRule;
 
 @MetaInfServices
 public class MissingPackageNullnessDefault extends SourceRule
 {
-    private class Visitor extends VoidVisitorAdapter<Void>
-    {
-        private final Set<String> knownPackages = new HashSet<>();
+    private static final Set<String> JSPECIFY_ANNOTATIONS = Set.of(NullMarked.class.getName(),
+        NullUnmarked.class.getName());
 
-        @Override
-        public void visit(PackageDeclaration node, Void arg)
-        {
-            super.visit(node, arg);
+    private final Set<String> knownPackages = new HashSet<>();
 
-            String packageName = node.getNameAsString();
+    @Override
+    protected void registerHandlers(NodeHandlers handlers)
+    {
+        handlers.on(PackageDeclaration.class, this::process);
+    }
 
-            if (knownPackages.contains(packageName))
-            {
-                return;
-            }
-            knownPackages.add(packageName);
+    private void process(PackageDeclaration node)
+    {
+        String packageName = node.getNameAsString();
 
-            if (getContext().getPackageInfoFiles()
-                .flatMap(packageDeclaration -> packageDeclaration.getAnnotations()
-                    .stream())
-                .filter(annotationExpr -> {
-                    String name = annotationExpr.getNameAsString();
-                    return name.equals("NullMarked") || name.equals("NullUnmarked");
-                })
-                .map(AnnotationExpr::resolve)
-                .map(ResolvedTypeDeclaration::getPackageName)
-                .noneMatch(annotationPackage -> annotationPackage.equals("org.jspecify.annotations")))
-            {
-                addViolation("Package %s is not annotated with @NullMarked or @NullUnmarked", packageName);
-            }
+        if (knownPackages.contains(packageName))
+        {
+            return;
         }
-    }
+        knownPackages.add(packageName);
 
-    private final Visitor visitor = new Visitor();
+        if (getContext().getPackageNullness() == Nullness.UNSPECIFIED)
+        {
+            addFileViolation("Package %s is not annotated with @NullMarked or @NullUnmarked", packageName);
+            return;
+        }
 
-    @Override
-    protected void scan(CompilationUnit compilationUnit)
-    {
-        compilationUnit.accept(visitor, null);
+        // The annotations found might not be the ones from jSpecify
+        if (getContext().getPackageInfoFiles()
+            .flatMap(packageDeclaration -> packageDeclaration.getAnnotations()
+                .stream())
+            .filter(annotationExpr -> {
+                String name = annotationExpr.getNameAsString();
+                return name.equals("NullMarked") || name.equals("NullUnmarked");
+            })
+            .map(annotationExpr -> getContext().resolveQualifiedName(annotationExpr))
+            .noneMatch(JSPECIFY_ANNOTATIONS::contains))
+        {
+            addFileViolation("Package %s is not annotated with @NullMarked or @NullUnmarked", packageName);
+        }
     }
 
     @Override
@@ -77,4 +79,11 @@ public class MissingPackageNullnessDefault extends SourceRule
     {
         return Status.OPTIONAL;
     }
+
+    @Override
+    public boolean isCacheable()
+    {
+        // Each package is only reported for the first file encountered
+        return false;
+    }
 }
@@ -7,11 +7,6 @@ import java.util.stream.Collectors;
 
 import org.kohsuke.MetaInfServices;
 
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.ast.expr.ArrayInitializerExpr;
 import com.github.javaparser.ast.expr.Expression;
@@ -19,10 +14,10 @@ import com.github.javaparser.ast.expr.MemberValuePair;
 import com.github.javaparser.ast.expr.NormalAnnotationExpr;
 import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import com.github.mizool.core.exception.CodeInconsistencyException;
 import com.google.common.collect.Sets;
 import dev.bannmann.labs.core.StreamExtras;
+import dev.bannmann.mandor.core.NodeHandlers;
 import dev.bannmann.mandor.core.Nodes;
 import dev.bannmann.mandor.core.SourceRule;
 import dev.bannmann.mandor.core.UnprocessableSourceCodeException;
@@ -30,180 +25,148 @@ import dev.bannmann.mandor.core.UnprocessableSourceCodeException;
 @MetaInfServices
 public final class MissingSuppressionRationale extends SourceRule
 {
-    private class Visitor extends VoidVisitorAdapter<Void>
+    @Override
+    protected void registerHandlers(NodeHandlers handlers)
     {
-        @Override
-        public void visit(SingleMemberAnnotationExpr annotation, Void unused)
-        {
-            /*
-             * Technically, a custom @SuppressWarnings might exist in another package, but we ignore that for now.
-             *
-             * The fully qualified name is unlikely to be used for types from java.lang, but as it's valid and easy
-             * to check for, we do that.
-             */
-            if (annotation.getNameAsString()
-                    .equals("SuppressWarnings") ||
-                annotation.getNameAsString()
-                    .equals("java.lang.SuppressWarnings"))
-            {
-                Expression memberValue = annotation.getMemberValue();
-                if (memberValue instanceof StringLiteralExpr string)
-                {
-                    verifyRationalePresent(annotation, string);
-                }
-                else if (memberValue instanceof ArrayInitializerExpr array)
-                {
-                    verifyRationalePresent(annotation, array);
-                }
-                else
-                {
-                    throw new UnprocessableSourceCodeException(createExceptionMessage(memberValue));
-                }
-            }
-
-            super.visit(annotation, unused);
-        }
-
-        private void verifyRationalePresent(SingleMemberAnnotationExpr annotation, StringLiteralExpr stringExpression)
-        {
-            verifyRationalePresent(annotation, stringExpression.asString());
-        }
+        handlers.on(SingleMemberAnnotationExpr.class, this::process);
+    }
 
-        private void verifyRationalePresent(SingleMemberAnnotationExpr suppressionAnnotation, String... names)
+    private void process(SingleMemberAnnotationExpr annotation)
+    {
+        /*
+         * Technically, a custom @SuppressWarnings might exist in another package, but we ignore that for now.
+         *
+         * The fully qualified name is unlikely to be used for types from java.lang, but as it's valid and easy
+         * to check for, we do that.
+         */
+        if (annotation.getNameAsString()
+                .equals("SuppressWarnings") ||
+            annotation.getNameAsString()
+                .equals("java.lang.SuppressWarnings"))
         {
-            List<AnnotationExpr> rationaleAnnotations = suppressionAnnotation.getParentNode()
-                .orElseThrow(CodeInconsistencyException::new)
-                .getChildNodes()
-                .stream()
-                .filter(AnnotationExpr.class::isInstance)
-                .map(AnnotationExpr.class::cast)
-                .filter(annotationExpr -> annotationExpr.getNameAsString()
-                    .equals("SuppressWarningsRationale"))
-                .toList();
-
-            Set<String> suppressedNames = Set.of(names);
-            if (suppressedNames.size() == 1 &&
-                rationaleAnnotations.size() == 1 &&
-                getName(rationaleAnnotations.get(0)).isEmpty())
+            Expression memberValue = annotation.getMemberValue();
+            if (memberValue instanceof StringLiteralExpr string)
             {
-                // Suppressing a single warning and having one SuppressWarningsRationale without an explicit name is fine.
-                return;
+                verifyRationalePresent(annotation, string);
             }
-
-            Set<String> rationaleNames = rationaleAnnotations.stream()
-                .map(this::getName)
-                .flatMap(Optional::stream)
-                .map(this::readStringValue)
-                .collect(Collectors.toSet());
-
-            Sets.SetView<String> suppressedWithoutRationale = Sets.difference(suppressedNames, rationaleNames);
-            if (suppressedWithoutRationale.isEmpty())
-            {
-                return;
-            }
-
-            String what = suppressedWithoutRationale.size() > 1
-                ? "warnings"
-                : "warning";
-
-            addViolation("%s suppresses %s %s without giving rationale in %s",
-                Nodes.obtainEnclosingTopLevelTypeName(suppressionAnnotation),
-                what,
-                suppressedWithoutRationale.stream()
-                    .sorted()
-                    .collect(Collectors.joining("', '", "'", "'")),
-                getContext().getCodeLocation(suppressionAnnotation));
-        }
-
-        private Optional<Expression> getName(AnnotationExpr annotationExpression)
-        {
-            if (annotationExpression instanceof SingleMemberAnnotationExpr)
+            else if (memberValue instanceof ArrayInitializerExpr array)
             {
-                return Optional.empty();
+                verifyRationalePresent(annotation, array);
             }
-
-            if (annotationExpression instanceof NormalAnnotationExpr normalAnnotationExpression)
+            else
             {
-                return normalAnnotationExpression.getPairs()
-                    .stream()
-                    .filter(memberValuePair -> memberValuePair.getName()
-                        .asString()
-                        .equals("name"))
-                    .reduce(StreamExtras.atMostOne())
-                    .stream()
-                    .findFirst()
-                    .map(MemberValuePair::getValue);
+                throw new UnprocessableSourceCodeException(createExceptionMessage(memberValue));
             }
-
-            throw new UnprocessableSourceCodeException("Unexpected type of annotation expression (%s): %s".formatted(
-                annotationExpression.getClass()
-                    .getSimpleName(),
-                annotationExpression));
         }
+    }
 
-        private String readStringValue(Expression expression)
-        {
-            if (!(expression instanceof StringLiteralExpr stringLiteralExpr))
-            {
-                throw new UnprocessableSourceCodeException(createExceptionMessage(expression));
-            }
-
-            return stringLiteralExpr.asString();
-        }
+    private void verifyRationalePresent(SingleMemberAnnotationExpr annotation, StringLiteralExpr stringExpression)
+    {
+        verifyRationalePresent(annotation, stringExpression.asString());
+    }
 
-        private void verifyRationalePresent(SingleMemberAnnotationExpr annotation, ArrayInitializerExpr array)
+    private void verifyRationalePresent(SingleMemberAnnotationExpr suppressionAnnotation, String... names)
+    {
+        List<AnnotationExpr> rationaleAnnotations = suppressionAnnotation.getParentNode()
+            .orElseThrow(CodeInconsistencyException::new)
+            .getChildNodes()
+            .stream()
+            .filter(AnnotationExpr.class::isInstance)
+            .map(AnnotationExpr.class::cast)
+            .filter(annotationExpr -> annotationExpr.getNameAsString()
+                .equals("SuppressWarningsRationale"))
+            .toList();
+
+        Set<String> suppressedNames = Set.of(names);
+        if (suppressedNames.size() == 1 &&
+            rationaleAnnotations.size() == 1 &&
+            getName(rationaleAnnotations.get(0)).isEmpty())
         {
-            verifyRationalePresent(annotation,
-                array.getValues()
-                    .stream()
-                    .map(arrayValueExpression -> {
-                        if (!(arrayValueExpression instanceof StringLiteralExpr stringExpression))
-                        {
-                            throw new IllegalArgumentException(createExceptionMessage(arrayValueExpression));
-                        }
-
-                        return stringExpression.asString();
-                    })
-                    .toArray(String[]::new));
+            // Suppressing a single warning and having one SuppressWarningsRationale without an explicit name is fine.
+            return;
         }
 
-        private String createExceptionMessage(Expression expression)
-        {
-            return "Unsupported expression type for @SuppressWarnings: %s in %s".formatted(expression,
-                getContext().getCodeLocation(expression));
-        }
+        Set<String> rationaleNames = rationaleAnnotations.stream()
+            .map(this::getName)
+            .flatMap(Optional::stream)
+            .map(this::readStringValue)
+            .collect(Collectors.toSet());
 
-        @Override
-        public void visit(ClassOrInterfaceDeclaration n, Void arg)
+        Sets.SetView<String> suppressedWithoutRationale = Sets.difference(suppressedNames, rationaleNames);
+        if (suppressedWithoutRationale.isEmpty())
         {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
+            return;
         }
 
-        @Override
-        public void visit(FieldDeclaration n, Void arg)
+        String what = suppressedWithoutRationale.size() > 1
+            ? "warnings"
+            : "warning";
+
+        addViolation(suppressionAnnotation,
+            "%s suppresses %s %s without giving rationale",
+            Nodes.obtainEnclosingTopLevelTypeName(suppressionAnnotation),
+            what,
+            suppressedWithoutRationale.stream()
+                .sorted()
+                .collect(Collectors.joining("', '", "'", "'")));
+    }
+
+    private Optional<Expression> getName(AnnotationExpr annotationExpression)
+    {
+        if (annotationExpression instanceof SingleMemberAnnotationExpr)
         {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
+            return Optional.empty();
         }
 
-        @Override
-        public void visit(ConstructorDeclaration n, Void arg)
+        if (annotationExpression instanceof NormalAnnotationExpr normalAnnotationExpression)
         {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
+            return normalAnnotationExpression.getPairs()
+                .stream()
+                .filter(memberValuePair -> memberValuePair.getName()
+                    .asString()
+                    .equals("name"))
+                .reduce(StreamExtras.atMostOne())
+                .stream()
+                .findFirst()
+                .map(MemberValuePair::getValue);
         }
 
-        @Override
-        public void visit(MethodDeclaration n, Void arg)
+        throw new UnprocessableSourceCodeException("Unexpected type of annotation expression (%s): %s".formatted(
+            annotationExpression.getClass()
+                .getSimpleName(),
+            annotationExpression));
+    }
+
+    private String readStringValue(Expression expression)
+    {
+        if (!(expression instanceof StringLiteralExpr stringLiteralExpr))
         {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
+            throw new UnprocessableSourceCodeException(createExceptionMessage(expression));
         }
+
+        return stringLiteralExpr.asString();
     }
 
-    private final Visitor visitor = new Visitor();
+    private void verifyRationalePresent(SingleMemberAnnotationExpr annotation, ArrayInitializerExpr array)
+    {
+        verifyRationalePresent(annotation,
+            array.getValues()
+                .stream()
+                .map(arrayValueExpression -> {
+                    if (!(arrayValueExpression instanceof StringLiteralExpr stringExpression))
+                    {
+                        throw new IllegalArgumentException(createExceptionMessage(arrayValueExpression));
+                    }
+
+                    return stringExpression.asString();
+                })
+                .toArray(String[]::new));
+    }
 
-    @Override
-    protected void scan(CompilationUnit compilationUnit)
+    private String createExceptionMessage(Expression expression)
     {
-        compilationUnit.accept(visitor, null);
+        return "Unsupported expression type for @SuppressWarnings: %s in %s".formatted(expression,
+            getContext().getCodeLocation(expression));
     }
 
     @Override
@@ -212,6 +175,12 @@ public final class MissingSuppressionRationale extends SourceRule
         return "Each @SuppressWarnings must have a corresponding @SuppressWarningsRationale";
     }
 
+    @Override
+    public Set<String> getTriggerTokens()
+    {
+        return Set.of("SuppressWarnings");
+    }
+
     @Override
     public String toString()
     {
@@ -2,20 +2,15 @@ package dev.bannmann.mandor.core.rules;
 
 import java.lang.annotation.Annotation;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 import org.kohsuke.MetaInfServices;
 
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.ast.expr.MarkerAnnotationExpr;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
-import com.github.javaparser.resolution.declarations.ResolvedAnnotationDeclaration;
+import dev.bannmann.mandor.core.NodeHandlers;
 import dev.bannmann.mandor.core.Nodes;
 import dev.bannmann.mandor.core.SourceRule;
 
@@ -25,89 +20,66 @@ public class NullabilityAnnotationOutsideNullMarkedCode extends SourceRule
     private static final Set<Class<? extends Annotation>> NULLABILITY_ANNOTATIONS = Set.of(NonNull.class,
         Nullable.class);
 
-    private class Visitor extends VoidVisitorAdapter<Void>
+    @Override
+    protected void registerHandlers(NodeHandlers handlers)
     {
-        @Override
-        public void visit(MarkerAnnotationExpr markerAnnotation, Void arg)
-        {
-            process(markerAnnotation);
-            super.visit(markerAnnotation, arg);
-        }
-
-        private void process(AnnotationExpr annotation)
-        {
-            if (annotationHasMismatchingSimpleName(annotation))
-            {
-                return;
-            }
-
-            var resolvedAnnotationDeclaration = annotation.resolve();
-            if (annotationHasMismatchingType(resolvedAnnotationDeclaration))
-            {
-                return;
-            }
-
-            if (CodeNullness.isInNullMarkedClass(annotation) || CodeNullness.isInNullMarkedPackage(getContext()))
-            {
-                return;
-            }
-
-            addViolation("%s is not NullMarked but uses a jSpecify nullability annotation in %s",
-                Nodes.obtainEnclosingTopLevelTypeName(annotation),
-                getContext().getCodeLocation(annotation));
-        }
+        handlers.on(MarkerAnnotationExpr.class, this::process);
+    }
 
-        private boolean annotationHasMismatchingSimpleName(AnnotationExpr annotation)
+    private void process(AnnotationExpr annotation)
+    {
+        if (annotationHasMismatchingSimpleName(annotation))
         {
-            return NULLABILITY_ANNOTATIONS.stream()
-                .map(Class::getSimpleName)
-                .noneMatch(s -> s.equals(annotation.getNameAsString()));
+            return;
         }
 
-        private boolean annotationHasMismatchingType(ResolvedAnnotationDeclaration resolvedAnnotationDeclaration)
+        if (annotationHasMismatchingType(getContext().resolveQualifiedName(annotation)))
         {
-            return NULLABILITY_ANNOTATIONS.stream()
-                .map(Class::getName)
-                .noneMatch(s -> s.equals(resolvedAnnotationDeclaration.getQualifiedName()));
+            return;
         }
 
-        @Override
-        public void visit(ClassOrInterfaceDeclaration n, Void arg)
+        if (getContext().isNullMarked(annotation))
         {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
+            return;
         }
 
-        @Override
-        public void visit(FieldDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+        addViolation(annotation,
+            "%s is not NullMarked but uses a jSpecify nullability annotation",
+            Nodes.obtainEnclosingTopLevelTypeName(annotation));
+    }
 
-        @Override
-        public void visit(ConstructorDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+    private boolean annotationHasMismatchingSimpleName(AnnotationExpr annotation)
+    {
+        return NULLABILITY_ANNOTATIONS.stream()
+            .map(Class::getSimpleName)
+            .noneMatch(s -> s.equals(annotation.getNameAsString()));
+    }
 
-        @Override
-        public void visit(MethodDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+    private boolean annotationHasMismatchingType(String qualifiedName)
+    {
+        return NULLABILITY_ANNOTATIONS.stream()
+            .map(Class::getName)
+            .noneMatch(s -> s.equals(qualifiedName));
     }
 
-    private final Visitor visitor = new Visitor();
+    @Override
+    public String getDescription()
+    {
+        return "Classes using jSpecify nullability annotations need to be @NullMarked on package or class level";
+    }
 
     @Override
-    protected void scan(CompilationUnit compilationUnit)
+    public String getVersion()
     {
-        compilationUnit.accept(visitor, null);
+        return "4";
     }
 
     @Override
-    public String getDescription()
+    public Set<String> getTriggerTokens()
     {
-        return "Classes using jSpecify nullability annotations need to be @NullMarked on package or class level";
+        return NULLABILITY_ANNOTATIONS.stream()
+            .map(Class::getSimpleName)
+            .collect(Collectors.toUnmodifiableSet());
     }
 
     @Override
@@ -2,73 +2,31 @@ package dev.bannmann.mandor.core.rules;
 
 import org.kohsuke.MetaInfServices;
 
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.IntegerLiteralExpr;
 import com.github.javaparser.ast.expr.LiteralStringValueExpr;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import dev.bannmann.mandor.core.NodeHandlers;
 import dev.bannmann.mandor.core.Nodes;
 import dev.bannmann.mandor.core.SourceRule;
 
 @MetaInfServices
 public class OctalNumberUsage extends SourceRule
 {
-    private class Visitor extends VoidVisitorAdapter<Void>
-    {
-        private final OctalDetector octalDetector = new OctalDetector();
-
-        @Override
-        public void visit(IntegerLiteralExpr node, Void arg)
-        {
-            super.visit(node, arg);
+    private final OctalDetector octalDetector = new OctalDetector();
 
-            process(node);
-        }
-
-        private void process(LiteralStringValueExpr node)
-        {
-            if (octalDetector.isOctal(node.getValue()))
-            {
-                addViolation("%s contains an octal number literal in %s",
-                    Nodes.obtainEnclosingTopLevelTypeName(node),
-                    getContext().getCodeLocation(node));
-            }
-        }
-
-        @Override
-        public void visit(ClassOrInterfaceDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
-
-        @Override
-        public void visit(FieldDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
-
-        @Override
-        public void visit(ConstructorDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
-
-        @Override
-        public void visit(MethodDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+    @Override
+    protected void registerHandlers(NodeHandlers handlers)
+    {
+        handlers.on(IntegerLiteralExpr.class, this::process);
     }
 
-    private final Visitor visitor = new Visitor();
-
-    @Override
-    protected void scan(CompilationUnit compilationUnit)
+    private void process(LiteralStringValueExpr node)
     {
-        compilationUnit.accept(visitor, null);
+        if (octalDetector.isOctal(node.getValue()))
+        {
+            addViolation(node,
+                "%s contains an octal number literal",
+                Nodes.obtainEnclosingTopLevelTypeName(node));
+        }
     }
 
     @Override
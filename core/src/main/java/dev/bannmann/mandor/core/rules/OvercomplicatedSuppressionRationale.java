@@ -1,135 +1,95 @@
 package dev.bannmann.mandor.core.rules;
 
 import java.util.Optional;
+import java.util.Set;
 
 import org.kohsuke.MetaInfServices;
 
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.MemberValuePair;
 import com.github.javaparser.ast.expr.NormalAnnotationExpr;
 import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
 import com.github.javaparser.ast.nodeTypes.NodeWithSimpleName;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import com.github.mizool.core.exception.CodeInconsistencyException;
 import dev.bannmann.labs.core.StreamExtras;
+import dev.bannmann.mandor.core.NodeHandlers;
 import dev.bannmann.mandor.core.Nodes;
 import dev.bannmann.mandor.core.SourceRule;
 
 @MetaInfServices
 public final class OvercomplicatedSuppressionRationale extends SourceRule
 {
-    private class Visitor extends VoidVisitorAdapter<Void>
+    @Override
+    protected void registerHandlers(NodeHandlers handlers)
     {
-        @Override
-        public void visit(NormalAnnotationExpr annotation, Void unused)
-        {
-            super.visit(annotation, unused);
-            processAnnotation(annotation);
-        }
+        handlers.on(NormalAnnotationExpr.class, this::processAnnotation);
+    }
 
-        private void processAnnotation(NormalAnnotationExpr annotation)
+    private void processAnnotation(NormalAnnotationExpr annotation)
+    {
+        if (isSuppressWarningsRationale(annotation))
         {
-            if (isSuppressWarningsRationale(annotation))
+            if (specifiesName(annotation))
             {
-                if (specifiesName(annotation))
-                {
-                    validateMultipleSuppressionsExist(annotation);
-                }
-
-                if (shouldUseSingleMemberForm(annotation))
-                {
-                    addViolation("%s needlessly uses the full `value=\"…\"` syntax for a rationale in %s",
-                        Nodes.obtainEnclosingTopLevelTypeName(annotation),
-                        getContext().getCodeLocation(annotation));
-                }
+                validateMultipleSuppressionsExist(annotation);
             }
-        }
-
-        private boolean isSuppressWarningsRationale(AnnotationExpr annotation)
-        {
-            return annotation.getNameAsString()
-                       .equals("SuppressWarningsRationale") ||
-                   annotation.getNameAsString()
-                       .equals("dev.bannmann.labs.annotations.SuppressWarningsRationale");
-        }
 
-        private boolean specifiesName(AnnotationExpr annotation)
-        {
-            return annotation instanceof NormalAnnotationExpr normalAnnotationExpr &&
-                   normalAnnotationExpr.getPairs()
-                       .stream()
-                       .map(NodeWithSimpleName::getNameAsString)
-                       .anyMatch(name -> name.equals("name"));
-        }
-
-        private void validateMultipleSuppressionsExist(NormalAnnotationExpr annotation)
-        {
-            Optional<SingleMemberAnnotationExpr> suppressionAnnotationOptional = annotation.getParentNode()
-                .orElseThrow(CodeInconsistencyException::new)
-                .getChildNodes()
-                .stream()
-                .filter(SingleMemberAnnotationExpr.class::isInstance)
-                .map(SingleMemberAnnotationExpr.class::cast)
-                .filter(annotationExpr -> annotationExpr.getNameAsString()
-                    .equals("SuppressWarnings"))
-                .reduce(StreamExtras.atMostOneThrowing(() -> new CodeInconsistencyException(
-                    "SuppressWarnings is not supposed to be repeatable")));
-
-            if (suppressionAnnotationOptional.map(SingleMemberAnnotationExpr::getMemberValue)
-                .filter(Expression::isArrayInitializerExpr)
-                .isEmpty())
+            if (shouldUseSingleMemberForm(annotation))
             {
-                addViolation("%s needlessly specifies a suppression name for a rationale in %s",
-                    Nodes.obtainEnclosingTopLevelTypeName(annotation),
-                    getContext().getCodeLocation(annotation));
+                addViolation(annotation,
+                    "%s needlessly uses the full `value=\"…\"` syntax for a rationale",
+                    Nodes.obtainEnclosingTopLevelTypeName(annotation));
             }
         }
+    }
 
-        private boolean shouldUseSingleMemberForm(NormalAnnotationExpr annotation)
-        {
-            return annotation.getPairs()
-                .stream()
-                .map(MemberValuePair::getNameAsString)
-                .allMatch(name -> name.equals("value"));
-        }
-
-        @Override
-        public void visit(ClassOrInterfaceDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
-
-        @Override
-        public void visit(FieldDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+    private boolean isSuppressWarningsRationale(AnnotationExpr annotation)
+    {
+        return annotation.getNameAsString()
+                   .equals("SuppressWarningsRationale") ||
+               annotation.getNameAsString()
+                   .equals("dev.bannmann.labs.annotations.SuppressWarningsRationale");
+    }
 
-        @Override
-        public void visit(ConstructorDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+    private boolean specifiesName(AnnotationExpr annotation)
+    {
+        return annotation instanceof NormalAnnotationExpr normalAnnotationExpr &&
+               normalAnnotationExpr.getPairs()
+                   .stream()
+                   .map(NodeWithSimpleName::getNameAsString)
+                   .anyMatch(name -> name.equals("name"));
+    }
 
-        @Override
-        public void visit(MethodDeclaration n, Void arg)
+    private void validateMultipleSuppressionsExist(NormalAnnotationExpr annotation)
+    {
+        Optional<SingleMemberAnnotationExpr> suppressionAnnotationOptional = annotation.getParentNode()
+            .orElseThrow(CodeInconsistencyException::new)
+            .getChildNodes()
+            .stream()
+            .filter(SingleMemberAnnotationExpr.class::isInstance)
+            .map(SingleMemberAnnotationExpr.class::cast)
+            .filter(annotationExpr -> annotationExpr.getNameAsString()
+                .equals("SuppressWarnings"))
+            .reduce(StreamExtras.atMostOneThrowing(() -> new CodeInconsistencyException(
+                "SuppressWarnings is not supposed to be repeatable")));
+
+        if (suppressionAnnotationOptional.map(SingleMemberAnnotationExpr::getMemberValue)
+            .filter(Expression::isArrayInitializerExpr)
+            .isEmpty())
         {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
+            addViolation(annotation,
+                "%s needlessly specifies a suppression name for a rationale",
+                Nodes.obtainEnclosingTopLevelTypeName(annotation));
         }
     }
 
-    private final Visitor visitor = new Visitor();
-
-    @Override
-    protected void scan(CompilationUnit compilationUnit)
+    private boolean shouldUseSingleMemberForm(NormalAnnotationExpr annotation)
     {
-        compilationUnit.accept(visitor, null);
+        return annotation.getPairs()
+            .stream()
+            .map(MemberValuePair::getNameAsString)
+            .allMatch(name -> name.equals("value"));
     }
 
     @Override
@@ -138,6 +98,12 @@ public final class OvercomplicatedSuppressionRationale extends SourceRule
         return "@SuppressWarningsRationale may only specify a 'name' if there is more than one suppression";
     }
 
+    @Override
+    public Set<String> getTriggerTokens()
+    {
+        return Set.of("SuppressWarningsRationale");
+    }
+
     @Override
     public String toString()
     {
@@ -4,127 +4,86 @@ import java.util.Set;
 
 import org.kohsuke.MetaInfServices;
 
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.ast.expr.MarkerAnnotationExpr;
 import com.github.javaparser.ast.expr.NormalAnnotationExpr;
 import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import dev.bannmann.mandor.core.NodeHandlers;
 import dev.bannmann.mandor.core.Nodes;
 import dev.bannmann.mandor.core.SourceRule;
 
 @MetaInfServices
 public final class UndesiredNullabilityAnnotation extends SourceRule
 {
-    private class Visitor extends VoidVisitorAdapter<Void>
-    {
-        private static final Set<String> ANNOTATION_NAMES = Set.of("Nullable", "NotNull", "NonNull", "Nonnull");
-
-        private static final Set<String> ALLOWED_ANNOTATIONS = Set.of("org.jspecify.annotations.NonNull",
-            "org.jspecify.annotations.Nullable",
-            "lombok.NonNull");
-
-        @Override
-        public void visit(MarkerAnnotationExpr markerAnnotation, Void arg)
-        {
-            process(markerAnnotation);
-            super.visit(markerAnnotation, arg);
-        }
+    private static final Set<String> ANNOTATION_NAMES = Set.of("Nullable", "NotNull", "NonNull", "Nonnull");
 
-        private void process(AnnotationExpr annotation)
-        {
-            if (!isRelatedToNullness(annotation))
-            {
-                return;
-            }
-
-            String qualifiedName = Nodes.getQualifiedName(annotation, getContext());
-            if (ALLOWED_ANNOTATIONS.contains(qualifiedName))
-            {
-                return;
-            }
-
-            if (isOutsideNullMarkedCode(annotation))
-            {
-                return;
-            }
-
-            addViolation("%s uses undesired annotation %s in %s",
-                Nodes.obtainEnclosingTopLevelTypeName(annotation),
-                qualifiedName,
-                getContext().getCodeLocation(annotation));
-        }
-
-        private boolean isRelatedToNullness(AnnotationExpr annotation)
-        {
-            return ANNOTATION_NAMES.contains(annotation.getNameAsString());
-        }
+    private static final Set<String> ALLOWED_ANNOTATIONS = Set.of("org.jspecify.annotations.NonNull",
+        "org.jspecify.annotations.Nullable",
+        "lombok.NonNull");
 
-        private boolean isOutsideNullMarkedCode(AnnotationExpr annotation)
-        {
-            return !isInsideNullMarkedCode(annotation);
-        }
+    @Override
+    protected void registerHandlers(NodeHandlers handlers)
+    {
+        handlers.on(MarkerAnnotationExpr.class, this::process);
+        handlers.on(SingleMemberAnnotationExpr.class, this::process);
+        handlers.on(NormalAnnotationExpr.class, this::process);
+    }
 
-        private boolean isInsideNullMarkedCode(AnnotationExpr annotation)
+    private void process(AnnotationExpr annotation)
+    {
+        if (!isRelatedToNullness(annotation))
         {
-            return CodeNullness.isInNullMarkedClass(annotation) || CodeNullness.isInNullMarkedPackage(getContext());
+            return;
         }
 
-        @Override
-        public void visit(SingleMemberAnnotationExpr singleMemberAnnotation, Void arg)
+        String qualifiedName = Nodes.getQualifiedName(annotation, getContext());
+        if (ALLOWED_ANNOTATIONS.contains(qualifiedName))
         {
-            process(singleMemberAnnotation);
-            super.visit(singleMemberAnnotation, arg);
+            return;
         }
 
-        @Override
-        public void visit(NormalAnnotationExpr normalAnnotation, Void arg)
+        if (isOutsideNullMarkedCode(annotation))
         {
-            process(normalAnnotation);
-            super.visit(normalAnnotation, arg);
+            return;
         }
 
-        @Override
-        public void visit(ClassOrInterfaceDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+        addViolation(annotation,
+            "%s uses undesired annotation %s",
+            Nodes.obtainEnclosingTopLevelTypeName(annotation),
+            qualifiedName);
+    }
 
-        @Override
-        public void visit(FieldDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+    private boolean isRelatedToNullness(AnnotationExpr annotation)
+    {
+        return ANNOTATION_NAMES.contains(annotation.getNameAsString());
+    }
 
-        @Override
-        public void visit(ConstructorDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+    private boolean isOutsideNullMarkedCode(AnnotationExpr annotation)
+    {
+        return !isInsideNullMarkedCode(annotation);
+    }
 
-        @Override
-        public void visit(MethodDeclaration n, Void arg)
-        {
-            trackSuppressibleScope(n, () -> super.visit(n, arg));
-        }
+    private boolean isInsideNullMarkedCode(AnnotationExpr annotation)
+    {
+        return getContext().isNullMarked(annotation);
     }
 
-    private final Visitor visitor = new Visitor();
+    @Override
+    public String getDescription()
+    {
+        return "@NullMarked code may only use nullability annotations from jSpecify (and Lombok's @NonNull)";
+    }
 
     @Override
-    protected void scan(CompilationUnit compilationUnit)
+    public String getVersion()
     {
-        compilationUnit.accept(visitor, null);
+        return "4";
     }
 
     @Override
-    public String getDescription()
+    public Set<String> getTriggerTokens()
     {
-        return "@NullMarked code may only use nullability annotations from jSpecify (and Lombok's @NonNull)";
+        return ANNOTATION_NAMES;
     }
 
     @Override
@@ -0,0 +1,13 @@
+package com.example.nullness;
+
+import java.util.List;
+
+import org.jspecify.annotations.*;
+
+@NullMarked
+public class OnDemandImportUse
+{
+    private @Nullable String name; // Resolving @Nullable requires the symbol solver due to the on-demand import
+
+    private @Nullable List<String> names;
+}
@@ -0,0 +1,8 @@
+package com.example.resolution;
+
+public class Base
+{
+    public @interface Marker
+    {
+    }
+}
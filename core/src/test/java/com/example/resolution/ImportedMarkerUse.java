@@ -0,0 +1,9 @@
+package com.example.resolution;
+
+import com.example.resolution.other.*;
+
+public class ImportedMarkerUse
+{
+    @Marker // Refers to com.example.resolution.other.Marker
+    private int value;
+}
@@ -0,0 +1,9 @@
+package com.example.resolution;
+
+import com.example.resolution.other.*;
+
+public class InheritedMarkerUse extends Base
+{
+    @Marker // Refers to the member type inherited from Base, which shadows the on-demand import
+    private int value;
+}
@@ -0,0 +1,9 @@
+package com.example.resolution;
+
+import com.example.resolution.other.Marker;
+
+public class SingleImportedMarkerUse extends Base
+{
+    @Marker // Refers to the member type inherited from Base, which shadows the single-type import
+    private int value;
+}
@@ -0,0 +1,5 @@
+package com.example.resolution.local;
+
+public @interface Marker
+{
+}
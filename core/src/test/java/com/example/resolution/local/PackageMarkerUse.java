@@ -0,0 +1,9 @@
+package com.example.resolution.local;
+
+import com.example.resolution.Base;
+
+public class PackageMarkerUse extends Base
+{
+    @Marker // Refers to the member type inherited from Base, which shadows the type of this package
+    private int value;
+}
@@ -0,0 +1,5 @@
+package com.example.resolution.other;
+
+public @interface Marker
+{
+}
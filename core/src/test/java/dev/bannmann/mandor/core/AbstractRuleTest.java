@@ -75,6 +75,7 @@ public abstract class AbstractRuleTest
 
         List<String> actual = sourceBundle.runScan(rule)
             .stream()
+            .map(Violation::getMessage)
             .sorted(SimpleNaturalComparator.getInstance())
             .toList();
 
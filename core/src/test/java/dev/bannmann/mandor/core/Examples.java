@@ -0,0 +1,98 @@
+package dev.bannmann.mandor.core;
+
+import static dev.bannmann.mandor.core.AbstractRuleTest.ROOT_PATH;
+import static dev.bannmann.mandor.core.AbstractRuleTest.pathContains;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import lombok.experimental.UtilityClass;
+
+import com.github.javaparser.ast.CompilationUnit;
+import dev.bannmann.labs.core.Nullness;
+
+/**
+ * Gives tests access to the example sources in {@code com.example}.
+ */
+@UtilityClass
+class Examples
+{
+    public static final String LANGUAGE = "language";
+    public static final String NULLNESS = "nullness";
+    public static final String RESOLUTION = "resolution";
+
+    /**
+     * Holds sources that complement those in {@link AbstractRuleTest#ROOT_PATH}, e.g. package-info files that conflict
+     * with the ones there.
+     */
+    public static final Path SECOND_ROOT_PATH = Paths.get("src/test/second-root")
+        .toAbsolutePath();
+
+    /**
+     * @param category the package below {@code com.example} to import, e.g. {@link #LANGUAGE}
+     */
+    public SourceBundle importInto(SourceBundle sourceBundle, String category)
+    {
+        return sourceBundle.importSources(ROOT_PATH, pathContains(category));
+    }
+
+    public SourceBundle importExamples(String category)
+    {
+        return importInto(new SourceBundle(), category);
+    }
+
+    /**
+     * @return the violations found by a sequential scan of a bundle with default settings, as a reference for scans
+     * using other settings
+     */
+    public List<Violation> scanRegularly(String category, Supplier<? extends SourceRule> ruleFactory)
+    {
+        return importExamples(category).runScan(ruleFactory.get());
+    }
+
+    /**
+     * Copies the example sources to the given directory, keeping their paths relative to the source root.
+     */
+    public void copyExamples(String category, Path targetDirectory) throws IOException
+    {
+        try (Stream<Path> files = Files.walk(ROOT_PATH.resolve("com/example")
+            .resolve(category)))
+        {
+            for (Path file : files.filter(Files::isRegularFile)
+                .toList())
+            {
+                Path target = targetDirectory.resolve(ROOT_PATH.relativize(file)
+                    .toString());
+                Files.createDirectories(Nullness.guaranteeNonNull(target.getParent()));
+                Files.copy(file, target);
+            }
+        }
+    }
+
+    /**
+     * Makes the given example file the current compilation unit of the context, assuming it is imported from
+     * {@link AbstractRuleTest#ROOT_PATH}.
+     */
+    public CompilationUnit activate(RuleContext context, Path path)
+    {
+        return activate(context, ROOT_PATH, path);
+    }
+
+    /**
+     * Makes the given example file the current compilation unit of the context, assuming it is imported from the given
+     * root only.
+     */
+    public CompilationUnit activate(RuleContext context, Path root, Path path)
+    {
+        CompilationUnit compilationUnit = context.lookup(path)
+            .findFirst()
+            .orElseThrow();
+        context.activate(compilationUnit, root, path);
+        return compilationUnit;
+    }
+}
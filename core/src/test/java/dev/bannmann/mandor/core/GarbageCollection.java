@@ -0,0 +1,39 @@
+package dev.bannmann.mandor.core;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import lombok.experimental.UtilityClass;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * Lets tests check whether objects became unreachable.
+ */
+@UtilityClass
+class GarbageCollection
+{
+    /**
+     * Runs a full garbage collection, clearing all weak references to unreachable objects before returning. Unlike
+     * {@link System#gc()}, which the JVM may treat as a mere hint, this does not need to be retried: writing a heap dump
+     * of the live objects always collects the others first.
+     */
+    public void run() throws IOException
+    {
+        Path directory = Files.createTempDirectory("mandor-heap");
+        try
+        {
+            ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class)
+                .dumpHeap(directory.resolve("live.hprof")
+                    .toString(), true);
+        }
+        finally
+        {
+            MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dev.bannmann.mandor.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+
+/**
+ * Creates temporary files and directories for a test class and deletes them again, see {@link #deleteAll()}.
+ */
+final class TemporaryFiles
+{
+    private final List<Path> paths = new ArrayList<>();
+
+    public Path createDirectory(String prefix) throws IOException
+    {
+        return remember(Files.createTempDirectory(prefix));
+    }
+
+    public Path createFile(String prefix, String suffix) throws IOException
+    {
+        return remember(Files.createTempFile(prefix, suffix));
+    }
+
+    private Path remember(Path path)
+    {
+        paths.add(path);
+        return path;
+    }
+
+    /**
+     * Deletes everything created so far, including the contents of directories. Meant to be called from an
+     * {@code @AfterMethod(alwaysRun = true)} method.
+     */
+    public void deleteAll() throws IOException
+    {
+        for (Path path : paths)
+        {
+            if (Files.exists(path))
+            {
+                MoreFiles.deleteRecursively(path, RecursiveDeleteOption.ALLOW_INSECURE);
+            }
+        }
+        paths.clear();
+    }
+}
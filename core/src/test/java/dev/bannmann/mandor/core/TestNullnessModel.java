@@ -0,0 +1,102 @@
+package dev.bannmann.mandor.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import dev.bannmann.mandor.core.rules.NullabilityAnnotationOutsideNullMarkedCode;
+import dev.bannmann.mandor.core.rules.UndesiredNullabilityAnnotation;
+
+public class TestNullnessModel
+{
+    @Test
+    public void testNullnessModelCombinesDeclarationsAndPackages()
+    {
+        RuleContext context = Examples.importExamples(Examples.NULLNESS)
+            .getRuleContext();
+
+        CompilationUnit markedClassUnit = Examples.activate(context,
+            Path.of("com/example/nullness/NullMarkedClass.java"));
+        var nestedField = markedClassUnit.findFirst(FieldDeclaration.class)
+            .orElseThrow();
+        assertThat(context.getPackageNullness()).isEqualTo(NullnessModel.Nullness.UNSPECIFIED);
+        assertThat(context.getNullness(nestedField)).isEqualTo(NullnessModel.Nullness.NULL_MARKED);
+        assertThat(context.findNullnessScope(nestedField)
+            .map(NullnessModel.Scope::declaration)).containsSame(markedClassUnit.getType(0));
+
+        CompilationUnit outsideUseUnit = Examples.activate(context, Path.of("com/example/nullness/OutsideUse.java"));
+        assertThat(context.getNullness(outsideUseUnit.getType(0))).isEqualTo(NullnessModel.Nullness.UNSPECIFIED);
+
+        CompilationUnit packageMarkedUnit = Examples.activate(context,
+            Path.of("com/example/nullness/null_marked/LombokUse.java"));
+        var packageMarkedType = packageMarkedUnit.getType(0);
+        assertThat(context.findNullnessScope(packageMarkedType)).isEmpty();
+        assertThat(context.getNullness(packageMarkedType)).isEqualTo(NullnessModel.Nullness.NULL_MARKED);
+    }
+
+    @Test
+    public void testNullMarkedTypeOutweighsNestedNullUnmarked()
+    {
+        var sourceBundle = new SourceBundle().importSources(Examples.SECOND_ROOT_PATH);
+        RuleContext context = sourceBundle.getRuleContext();
+
+        CompilationUnit compilationUnit = Examples.activate(context,
+            Examples.SECOND_ROOT_PATH,
+            Path.of("com/example/nullness/NestedNullUnmarked.java"));
+        TypeDeclaration<?> outerType = compilationUnit.getType(0);
+        TypeDeclaration<?> nestedType = compilationUnit.findFirst(TypeDeclaration.class,
+                type -> type.getNameAsString()
+                    .equals("Legacy"))
+            .orElseThrow();
+
+        assertThat(context.isNullMarked(outerType.getFields()
+            .get(0))).isTrue();
+        assertThat(context.getNullness(nestedType)).isEqualTo(NullnessModel.Nullness.NULL_UNMARKED);
+        assertThat(context.isNullMarked(nestedType.getFields()
+            .get(0))).isTrue();
+
+        String typeName = "NestedNullUnmarked";
+        var undesiredLines = findViolationLines(sourceBundle, new UndesiredNullabilityAnnotation(), typeName);
+        var outsideLines = findViolationLines(sourceBundle, new NullabilityAnnotationOutsideNullMarkedCode(), typeName);
+        assertThat(undesiredLines).containsExactly(15, 23);
+        assertThat(outsideLines).isEmpty();
+    }
+
+    @Test
+    public void testConflictingPackageCountsAsNullMarked()
+    {
+        var sourceBundle = Examples.importExamples(Examples.NULLNESS)
+            .importSources(Examples.SECOND_ROOT_PATH);
+        RuleContext context = sourceBundle.getRuleContext();
+
+        CompilationUnit compilationUnit = Examples.activate(context,
+            Examples.SECOND_ROOT_PATH,
+            Path.of("com/example/nullness/conflicting/ConflictingPackageUse.java"));
+        assertThat(context.getPackageNullness()).isEqualTo(NullnessModel.Nullness.CONFLICTING);
+        assertThat(context.isNullMarked(compilationUnit.getType(0))).isTrue();
+
+        // The rules treat the package like one whose package-info files all declare @NullMarked
+        String typeName = "ConflictingPackageUse";
+        var undesiredLines = findViolationLines(sourceBundle, new UndesiredNullabilityAnnotation(), typeName);
+        var outsideLines = findViolationLines(sourceBundle, new NullabilityAnnotationOutsideNullMarkedCode(), typeName);
+        assertThat(undesiredLines).containsExactly(15);
+        assertThat(outsideLines).isEmpty();
+    }
+
+    private static List<Integer> findViolationLines(SourceBundle sourceBundle, SourceRule rule, String typeName)
+    {
+        return sourceBundle.runScan(rule)
+            .stream()
+            .filter(violation -> violation.file()
+                .endsWith(typeName + ".java"))
+            .map(Violation::line)
+            .sorted()
+            .toList();
+    }
+}
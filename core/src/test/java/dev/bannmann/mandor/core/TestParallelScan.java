@@ -0,0 +1,86 @@
+package dev.bannmann.mandor.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import dev.bannmann.mandor.core.rules.BitwiseOperatorUsage;
+import dev.bannmann.mandor.core.rules.MissingPackageNullnessDefault;
+import dev.bannmann.mandor.core.rules.NullabilityAnnotationOutsideNullMarkedCode;
+import dev.bannmann.mandor.core.rules.RedundantlyNullMarkedCode;
+import dev.bannmann.mandor.core.rules.UndesiredNullabilityAnnotation;
+
+public class TestParallelScan
+{
+    @DataProvider
+    public static Object[][] nullnessRuleFactories()
+    {
+        return new Object[][]{
+            new Object[]{ (Supplier<SourceRule>) MissingPackageNullnessDefault::new },
+            new Object[]{ (Supplier<SourceRule>) NullabilityAnnotationOutsideNullMarkedCode::new },
+            new Object[]{ (Supplier<SourceRule>) RedundantlyNullMarkedCode::new },
+            new Object[]{ (Supplier<SourceRule>) UndesiredNullabilityAnnotation::new }
+        };
+    }
+
+    @Test
+    public void testParallelImportKeepsFileOrder()
+    {
+        var sequentialResult = Examples.importExamples(Examples.LANGUAGE)
+            .runScan(new BitwiseOperatorUsage());
+        var parallelResult = Examples.importInto(new SourceBundle().withParallelism(4), Examples.LANGUAGE)
+            .runScan(new BitwiseOperatorUsage());
+
+        assertThat(parallelResult).isNotEmpty()
+            .containsExactlyElementsOf(sequentialResult);
+    }
+
+    @Test(dataProvider = "nullnessRuleFactories")
+    public void testParallelScanMatchesSequentialScan(Supplier<SourceRule> ruleFactory)
+    {
+        var sourceBundle = Examples.importInto(new SourceBundle().withParallelism(4), Examples.NULLNESS);
+
+        var sequentialResult = sourceBundle.runScan(ruleFactory.get());
+        var parallelResult = sourceBundle.runScan(ruleFactory);
+
+        assertThat(parallelResult).containsExactlyElementsOf(sequentialResult);
+    }
+
+    @Test(dataProvider = "nullnessRuleFactories")
+    public void testStreamingScanMatchesRegularScan(Supplier<SourceRule> ruleFactory)
+    {
+        var streamingResult = Examples.importInto(new SourceBundle().withStreaming()
+                .withParallelism(4), Examples.NULLNESS)
+            .runScan(ruleFactory);
+
+        assertThat(streamingResult).containsExactlyElementsOf(Examples.scanRegularly(Examples.NULLNESS, ruleFactory));
+    }
+
+    @Test(dataProvider = "nullnessRuleFactories")
+    public void testBoundedScanMatchesRegularScan(Supplier<SourceRule> ruleFactory)
+    {
+        var boundedResult = Examples.importInto(new SourceBundle().withParsedFileLimit(2)
+                .withParallelism(4), Examples.NULLNESS)
+            .runScan(ruleFactory);
+
+        assertThat(boundedResult).containsExactlyElementsOf(Examples.scanRegularly(Examples.NULLNESS, ruleFactory));
+    }
+
+    @Test
+    public void testListenerReceivesViolationsDuringParallelScan()
+    {
+        var sourceBundle = Examples.importInto(new SourceBundle().withParallelism(4), Examples.NULLNESS);
+        List<Violation> receivedViolations = new ArrayList<>();
+
+        sourceBundle.scan(NullabilityAnnotationOutsideNullMarkedCode::new, receivedViolations::add);
+
+        var collectedViolations = sourceBundle.runScan(new NullabilityAnnotationOutsideNullMarkedCode());
+        assertThat(receivedViolations).isNotEmpty()
+            .containsExactlyInAnyOrderElementsOf(collectedViolations);
+    }
+}
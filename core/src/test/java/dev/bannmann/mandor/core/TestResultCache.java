@@ -0,0 +1,236 @@
+package dev.bannmann.mandor.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.hash.HashCode;
+import dev.bannmann.mandor.core.rules.AssertStatementUsage;
+import dev.bannmann.mandor.core.rules.BitwiseOperatorUsage;
+import dev.bannmann.mandor.core.rules.RedundantlyNullMarkedCode;
+
+public class TestResultCache
+{
+    private final TemporaryFiles temporaryFiles = new TemporaryFiles();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteTemporaryFiles() throws IOException
+    {
+        temporaryFiles.deleteAll();
+    }
+
+    @Test
+    public void testResultCacheNoticesChangedPackageInfo() throws IOException
+    {
+        Path sourceDirectory = temporaryFiles.createDirectory("mandor-sources");
+        Path cacheDirectory = temporaryFiles.createDirectory("mandor-cache");
+        Examples.copyExamples(Examples.NULLNESS, sourceDirectory);
+
+        var initialResult = scanWithResultCache(sourceDirectory, cacheDirectory);
+        var cachedResult = scanWithResultCache(sourceDirectory, cacheDirectory);
+
+        assertThat(cachedResult).hasSize(2)
+            .containsExactlyElementsOf(initialResult);
+        try (Stream<Path> entries = Files.list(cacheDirectory.resolve(RedundantlyNullMarkedCode.class.getName())))
+        {
+            assertThat(entries).isNotEmpty();
+        }
+
+        Files.writeString(sourceDirectory.resolve("com/example/nullness/null_marked/package-info.java"),
+            "package com.example.nullness.null_marked;\n");
+        var resultAfterChange = scanWithResultCache(sourceDirectory, cacheDirectory);
+        var uncachedResult = new SourceBundle().importSources(sourceDirectory)
+            .runScan(new RedundantlyNullMarkedCode());
+
+        assertThat(resultAfterChange).hasSize(1)
+            .containsExactlyElementsOf(uncachedResult);
+    }
+
+    @Test
+    public void testUnusedEntriesAreEvicted() throws IOException
+    {
+        Path sourceDirectory = temporaryFiles.createDirectory("mandor-sources");
+        Path cacheDirectory = temporaryFiles.createDirectory("mandor-cache");
+        Examples.copyExamples(Examples.NULLNESS, sourceDirectory);
+        scanWithResultCache(sourceDirectory, cacheDirectory);
+
+        Path ruleDirectory = cacheDirectory.resolve(RedundantlyNullMarkedCode.class.getName());
+        Path removedRuleDirectory = Files.createDirectories(cacheDirectory.resolve("com.example.RemovedRule"));
+        Path removedRuleEntry = Files.writeString(removedRuleDirectory.resolve("entry.bin"), "");
+        List<Path> entries = listEntries(ruleDirectory);
+        assertThat(entries).isNotEmpty();
+
+        FileTime longAgo = FileTime.from(Instant.now()
+            .minus(Duration.ofDays(2)));
+        Files.setLastModifiedTime(removedRuleEntry, longAgo);
+        for (Path entry : entries)
+        {
+            Files.setLastModifiedTime(entry, longAgo);
+        }
+
+        // Using the entries renews them, while the entry of the removed rule stays untouched
+        scanWithResultCache(sourceDirectory, cacheDirectory);
+        new SourceBundle().withResultCache(cacheDirectory, Duration.ofDays(1));
+
+        assertThat(listEntries(ruleDirectory)).containsExactlyInAnyOrderElementsOf(entries);
+        assertThat(removedRuleDirectory).doesNotExist();
+
+        for (Path entry : entries)
+        {
+            Files.setLastModifiedTime(entry, longAgo);
+        }
+        new SourceBundle().withResultCache(cacheDirectory, Duration.ofDays(1));
+
+        assertThat(ruleDirectory).doesNotExist();
+        assertThat(cacheDirectory).isEmptyDirectory();
+    }
+
+    @Test
+    public void testArgumentsKeepTheirTypes() throws IOException
+    {
+        Path sourceDirectory = temporaryFiles.createDirectory("mandor-sources");
+        Path cacheDirectory = temporaryFiles.createDirectory("mandor-cache");
+        SourceFile sourceFile = createSourceFile(sourceDirectory, Path.of("Example.java"));
+        var resultCache = new ResultCache(cacheDirectory, Duration.ofDays(1), path -> HashCode.fromInt(0));
+        var rule = new AssertStatementUsage();
+        List<Violation> violations = List.of(Violation.of(rule.getWarningName(),
+            sourceFile.getRoot(),
+            sourceFile.getRelativePath(),
+            1,
+            1,
+            "%s %c %b %d %d %d %d %.0f %.0f %d %.0f",
+            "text",
+            'x',
+            true,
+            (byte) 1,
+            (short) 2,
+            3,
+            4L,
+            5f,
+            6d,
+            BigInteger.valueOf(7),
+            new BigDecimal("8")));
+
+        resultCache.store(rule, sourceFile, Set.of(), violations);
+
+        assertThat(resultCache.load(rule, sourceFile)).hasValueSatisfying(cachedViolations -> {
+            assertThat(cachedViolations).containsExactlyElementsOf(violations);
+            assertThat(cachedViolations.get(0)
+                .getText()).isEqualTo("text x true 1 2 3 4 5 6 7 8");
+        });
+    }
+
+    @Test
+    public void testLongStringsAreCached() throws IOException
+    {
+        Path sourceDirectory = temporaryFiles.createDirectory("mandor-sources");
+        Path cacheDirectory = temporaryFiles.createDirectory("mandor-cache");
+        SourceFile sourceFile = createSourceFile(sourceDirectory, Path.of("Example.java"));
+        var resultCache = new ResultCache(cacheDirectory, Duration.ofDays(1), path -> HashCode.fromInt(0));
+        var rule = new AssertStatementUsage();
+        String longText = "\u00e4".repeat(70_000);
+        List<Violation> violations = List.of(Violation.of(rule.getWarningName(),
+            sourceFile.getRoot(),
+            sourceFile.getRelativePath(),
+            1,
+            1,
+            longText + " %s",
+            longText));
+
+        resultCache.store(rule, sourceFile, Set.of(), violations);
+
+        assertThat(resultCache.load(rule, sourceFile)).contains(violations);
+    }
+
+    @Test
+    public void testReusedResolutionsKeepTheirDependencies() throws IOException
+    {
+        Path sourceDirectory = temporaryFiles.createDirectory("mandor-sources");
+        Path cacheDirectory = temporaryFiles.createDirectory("mandor-cache");
+        Files.writeString(sourceDirectory.resolve("Toggle.java"), """
+            class Toggle
+            {
+                boolean toggle(boolean other)
+                {
+                    return Flags.FLAG ^ other;
+                }
+            }
+            """);
+        Path flagsFile = Files.writeString(sourceDirectory.resolve("Flags.java"), """
+            class Flags
+            {
+                static boolean FLAG = true;
+            }
+            """);
+
+        assertThat(scanForBitwiseOperatorsTwice(sourceDirectory, cacheDirectory)).isEmpty();
+
+        Files.writeString(flagsFile, """
+            class Flags
+            {
+                static int FLAG = 1;
+            }
+            """);
+
+        assertThat(scanForBitwiseOperatorsTwice(sourceDirectory, cacheDirectory)).singleElement()
+            .extracting(Violation::file)
+            .isEqualTo(Path.of("Toggle.java"));
+    }
+
+    /**
+     * @return the violations of the second rule, which reuses the types resolved by the first one
+     */
+    private static List<Violation> scanForBitwiseOperatorsTwice(Path sourceDirectory, Path cacheDirectory)
+    {
+        var secondRule = new SecondBitwiseOperatorUsage();
+        new SourceBundle().withResultCache(cacheDirectory)
+            .importSources(sourceDirectory)
+            .runScan(List.of(new BitwiseOperatorUsage(), secondRule));
+        return secondRule.getViolations();
+    }
+
+    private static class SecondBitwiseOperatorUsage extends BitwiseOperatorUsage
+    {
+    }
+
+    private static SourceFile createSourceFile(Path root, Path relativePath) throws IOException
+    {
+        Path file = Files.writeString(root.resolve(relativePath), "class Example {}\n");
+        return new SourceFile(root,
+            relativePath,
+            Files.readAttributes(file, BasicFileAttributes.class),
+            path -> {
+                throw new UnsupportedOperationException();
+            },
+            null);
+    }
+
+    private static List<Path> listEntries(Path ruleDirectory) throws IOException
+    {
+        try (Stream<Path> entries = Files.list(ruleDirectory))
+        {
+            return entries.toList();
+        }
+    }
+
+    private static List<Violation> scanWithResultCache(Path sourceDirectory, Path cacheDirectory)
+    {
+        return new SourceBundle().withResultCache(cacheDirectory)
+            .importSources(sourceDirectory)
+            .runScan(new RedundantlyNullMarkedCode());
+    }
+}
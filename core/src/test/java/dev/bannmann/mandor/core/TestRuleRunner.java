@@ -0,0 +1,134 @@
+package dev.bannmann.mandor.core;
+
+import static dev.bannmann.mandor.core.AbstractRuleTest.ROOT_PATH;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import dev.bannmann.mandor.core.rules.AssertStatementUsage;
+import dev.bannmann.mandor.core.rules.BitwiseOperatorUsage;
+import dev.bannmann.mandor.core.rules.HardcodedClassReference;
+import dev.bannmann.mandor.core.rules.OctalNumberUsage;
+
+public class TestRuleRunner
+{
+    private final TemporaryFiles temporaryFiles = new TemporaryFiles();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteTemporaryFiles() throws IOException
+    {
+        temporaryFiles.deleteAll();
+    }
+
+    @Test
+    public void testSinglePassScanMatchesIndividualScans()
+    {
+        var sourceBundle = Examples.importExamples(Examples.LANGUAGE);
+        List<Supplier<SourceRule>> ruleFactories = List.of(AssertStatementUsage::new,
+            BitwiseOperatorUsage::new,
+            HardcodedClassReference::new,
+            OctalNumberUsage::new);
+        List<SourceRule> rules = ruleFactories.stream()
+            .map(Supplier::get)
+            .toList();
+
+        Map<SourceRule, List<Violation>> combinedResult = sourceBundle.runScan(rules);
+
+        for (int i = 0; i < rules.size(); i++)
+        {
+            var individualResult = sourceBundle.runScan(ruleFactories.get(i)
+                .get());
+            assertThat(combinedResult.get(rules.get(i))).containsExactlyElementsOf(individualResult);
+        }
+    }
+
+    @Test
+    public void testTriggerTokensSkipParsingOfUnrelatedFiles()
+    {
+        var sourceBundle = Examples.importInto(new SourceBundle().withStreaming()
+            .withStatistics(), Examples.LANGUAGE);
+
+        var result = sourceBundle.runScan(new AssertStatementUsage());
+
+        assertThat(result).isNotEmpty()
+            .containsExactlyElementsOf(Examples.scanRegularly(Examples.LANGUAGE, AssertStatementUsage::new));
+        assertThat(sourceBundle.getStatistics()
+            .getParseTimes()).containsOnlyKeys(ROOT_PATH.resolve("com/example/language/CodeWithAssertions.java"));
+    }
+
+    @Test
+    public void testTriggerTokenHitsAreRememberedUntilFileChanges() throws IOException
+    {
+        Path root = temporaryFiles.createDirectory("mandor-sources");
+        Path file = Files.writeString(root.resolve("Example.java"),
+            "class Example { void check() { assert true; } }\n");
+        var sourceFile = new SourceFile(root,
+            Path.of("Example.java"),
+            Files.readAttributes(file, BasicFileAttributes.class),
+            path -> {
+                throw new UnsupportedOperationException();
+            },
+            null);
+
+        assertThat(sourceFile.findOccurringTokens(Set.of("assert", "Objects"))).containsExactly("assert");
+
+        // Reading the file again would fail now
+        Files.delete(file);
+        assertThat(sourceFile.findOccurringTokens(Set.of("assert", "Objects"))).containsExactly("assert");
+
+        Files.writeString(file, "class Example { void check() { Objects.requireNonNull(this); } }\n");
+        assertThat(sourceFile.refresh(Files.readAttributes(file, BasicFileAttributes.class))).isTrue();
+        assertThat(sourceFile.findOccurringTokens(Set.of("assert", "Objects"))).containsExactly("Objects");
+    }
+
+    @Test
+    public void testViolationLimitStopsScanEarly()
+    {
+        var sourceBundle = Examples.importInto(new SourceBundle().withViolationLimit(3)
+            .withStatistics(), Examples.LANGUAGE);
+
+        assertThat(sourceBundle.runScan(new BitwiseOperatorUsage())).hasSize(3);
+        assertThat(sourceBundle.getStatistics()
+            .getScanTimesByFile()).hasSizeLessThan(sourceBundle.getFileCount());
+    }
+
+    @Test
+    public void testReachingViolationLimitWithLastViolationCompletesScan()
+    {
+        int violationCount = Examples.scanRegularly(Examples.LANGUAGE, AssertStatementUsage::new)
+            .size();
+        var completedBundle = Examples.importInto(new SourceBundle().withViolationLimit(violationCount),
+            Examples.LANGUAGE);
+        var stoppedBundle = Examples.importInto(new SourceBundle().withViolationLimit(violationCount - 1),
+            Examples.LANGUAGE);
+
+        assertThatThrownBy(() -> completedBundle.verify(new AssertStatementUsage())).isInstanceOf(AssertionError.class)
+            .hasMessageContaining("(%d times)", violationCount)
+            .hasMessageNotContaining("limit of");
+        assertThatThrownBy(() -> stoppedBundle.verify(new AssertStatementUsage())).isInstanceOf(AssertionError.class)
+            .hasMessageContaining("(%d times)", violationCount - 1)
+            .hasMessageContaining("limit of %d violations", violationCount - 1);
+    }
+
+    @Test
+    public void testFailFastStopsParallelScan()
+    {
+        var sourceBundle = Examples.importInto(new SourceBundle().withFailFast()
+            .withParallelism(4), Examples.LANGUAGE);
+
+        assertThatThrownBy(() -> sourceBundle.verify(BitwiseOperatorUsage::new)).isInstanceOf(AssertionError.class)
+            .hasMessageContaining("(1 times)")
+            .hasMessageContaining("limit of 1 violations");
+    }
+}
@@ -0,0 +1,99 @@
+package dev.bannmann.mandor.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import dev.bannmann.mandor.core.rules.UndesiredNullabilityAnnotation;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+public class TestScanInstrumentation
+{
+    private final TemporaryFiles temporaryFiles = new TemporaryFiles();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteTemporaryFiles() throws IOException
+    {
+        temporaryFiles.deleteAll();
+    }
+
+    @Test
+    public void testStatisticsCoverParsingScanningAndResolution()
+    {
+        var sourceBundle = Examples.importInto(new SourceBundle().withStatistics(), Examples.NULLNESS);
+        sourceBundle.runScan(new UndesiredNullabilityAnnotation());
+
+        ScanStatistics statistics = sourceBundle.getStatistics();
+        assertThat(statistics.getParseTimes()).hasSize(sourceBundle.getFileCount());
+        assertThat(statistics.getScanTimesByFile()).hasSize(sourceBundle.getFileCount());
+        assertThat(statistics.getScanTimesByRule()).containsOnlyKeys(UndesiredNullabilityAnnotation.class);
+        assertThat(statistics.getTotalNodeCount()).isPositive();
+        assertThat(statistics.getResolutionCount()).isPositive();
+        assertThat(statistics.getSlowestFiles(3)).hasSize(3);
+    }
+
+    @Test
+    public void testFlightRecorderEventsCoverParsingScanningAndResolution() throws IOException
+    {
+        Path recordingFile = temporaryFiles.createFile("mandor", ".jfr");
+        try (var recording = new Recording())
+        {
+            recording.enable("dev.bannmann.mandor.Parse");
+            recording.enable("dev.bannmann.mandor.Scan");
+            recording.enable("dev.bannmann.mandor.Resolution");
+            recording.start();
+
+            Examples.importExamples(Examples.NULLNESS)
+                .runScan(new UndesiredNullabilityAnnotation());
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<String> eventNames = RecordingFile.readAllEvents(recordingFile)
+            .stream()
+            .map(event -> event.getEventType()
+                .getName())
+            .toList();
+        assertThat(eventNames).contains("dev.bannmann.mandor.Parse",
+            "dev.bannmann.mandor.Scan",
+            "dev.bannmann.mandor.Resolution");
+    }
+
+    @Test
+    public void testTraceCoversParsingScanningAndResolution() throws IOException
+    {
+        Path traceFile = temporaryFiles.createFile("mandor", ".json");
+        var sourceBundle = Examples.importInto(new SourceBundle().withParallelism(2)
+            .withTrace(traceFile), Examples.NULLNESS);
+        sourceBundle.runScan(UndesiredNullabilityAnnotation::new);
+
+        String trace = Files.readString(traceFile);
+        assertThat(trace).startsWith("[\n{")
+            .contains("\"cat\":\"parse\"", "\"cat\":\"scan\"", "\"cat\":\"resolution\"")
+            .contains("mandor-parser", "mandor-scanner");
+        long scanSpanCount = countScanSpans(trace);
+        assertThat(scanSpanCount).isPositive();
+
+        // Later scans append their spans instead of rewriting the ones written before
+        sourceBundle.runScan(UndesiredNullabilityAnnotation::new);
+
+        String extendedTrace = Files.readString(traceFile);
+        assertThat(extendedTrace).startsWith(trace);
+        assertThat(countScanSpans(extendedTrace)).isEqualTo(2 * scanSpanCount);
+    }
+
+    private static long countScanSpans(String trace)
+    {
+        return trace.lines()
+            .filter(line -> line.contains("\"cat\":\"scan\""))
+            .count();
+    }
+}
@@ -0,0 +1,67 @@
+package dev.bannmann.mandor.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import dev.bannmann.mandor.core.rules.BitwiseOperatorUsage;
+import dev.bannmann.mandor.core.rules.RedundantlyNullMarkedCode;
+
+public class TestSourceBundle
+{
+    private final TemporaryFiles temporaryFiles = new TemporaryFiles();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteTemporaryFiles() throws IOException
+    {
+        temporaryFiles.deleteAll();
+    }
+
+    @Test
+    public void testRefreshPicksUpChangedFiles() throws IOException
+    {
+        Path sourceDirectory = temporaryFiles.createDirectory("mandor-sources");
+        Examples.copyExamples(Examples.NULLNESS, sourceDirectory);
+        var sourceBundle = new SourceBundle().importSources(sourceDirectory);
+        int fileCount = sourceBundle.getFileCount();
+
+        assertThat(sourceBundle.runScan(new RedundantlyNullMarkedCode())).hasSize(2);
+        assertThat(sourceBundle.refresh()).isZero();
+
+        Path nullnessDirectory = sourceDirectory.resolve("com/example/nullness");
+        Files.writeString(nullnessDirectory.resolve("null_marked/package-info.java"),
+            "package com.example.nullness.null_marked;\n");
+        String renamedClass = Files.readString(nullnessDirectory.resolve("Redundancy1.java"))
+            .replace("Redundancy1", "Redundancy3");
+        Files.delete(nullnessDirectory.resolve("Redundancy1.java"));
+        Files.writeString(nullnessDirectory.resolve("Redundancy3.java"), renamedClass);
+
+        assertThat(sourceBundle.refresh()).isEqualTo(3);
+        assertThat(sourceBundle.getFileCount()).isEqualTo(fileCount);
+        assertThat(sourceBundle.runScan(new RedundantlyNullMarkedCode())).singleElement()
+            .extracting(Violation::getMessage)
+            .asString()
+            .contains("Redundancy3");
+    }
+
+    @Test
+    public void testVerifyDescribesViolationsWithoutExtraRuleInstance()
+    {
+        var sourceBundle = Examples.importExamples(Examples.LANGUAGE);
+        var createdRules = new AtomicInteger();
+
+        assertThatThrownBy(() -> sourceBundle.verify(() -> {
+            createdRules.incrementAndGet();
+            return new BitwiseOperatorUsage();
+        })).isInstanceOf(AssertionError.class)
+            .hasMessageContaining("was violated");
+        assertThat(createdRules).hasValue(1);
+    }
+}
@@ -0,0 +1,255 @@
+package dev.bannmann.mandor.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.MarkerAnnotationExpr;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import dev.bannmann.mandor.core.rules.BitwiseOperatorUsage;
+import dev.bannmann.mandor.core.rules.UndesiredNullabilityAnnotation;
+
+public class TestSymbolResolution
+{
+    @Test
+    public void testAnnotationResolutionCacheKeepsResults()
+    {
+        var sourceBundle = Examples.importInto(new SourceBundle().withStatistics(), Examples.NULLNESS);
+
+        var result = sourceBundle.runScan(new UndesiredNullabilityAnnotation());
+
+        assertThat(result).containsExactlyElementsOf(Examples.scanRegularly(Examples.NULLNESS,
+            UndesiredNullabilityAnnotation::new));
+        ScanStatistics statistics = sourceBundle.getStatistics();
+        assertThat(statistics.getAnnotationCacheMissCount()).isPositive();
+        assertThat(statistics.getAnnotationCacheHitCount()).isPositive();
+    }
+
+    @Test
+    public void testImportsResolveAnnotationsWithoutSymbolSolver()
+    {
+        var sourceBundle = Examples.importInto(new SourceBundle().withStatistics(), Examples.NULLNESS);
+        RuleContext context = sourceBundle.getRuleContext();
+
+        for (Path path : List.of(Path.of("com/example/nullness/OutsideUse.java"),
+            Path.of("com/example/nullness/null_marked/UseOfUndesiredAnnotation.java")))
+        {
+            CompilationUnit compilationUnit = Examples.activate(context, path);
+            for (AnnotationExpr annotation : compilationUnit.findAll(AnnotationExpr.class))
+            {
+                assertThat(context.resolveQualifiedName(annotation)).isEqualTo(annotation.resolve()
+                    .getQualifiedName());
+            }
+        }
+
+        // The imports sufficed, so the symbol solver was only used by the calls to resolve() above
+        ScanStatistics statistics = sourceBundle.getStatistics();
+        assertThat(statistics.getAnnotationCacheMissCount()).isZero();
+        assertThat(statistics.getAnnotationCacheHitCount()).isZero();
+    }
+
+    @Test
+    public void testFullyQualifiedNamesAreVerified()
+    {
+        RuleContext context = Examples.importExamples(Examples.NULLNESS)
+            .getRuleContext();
+
+        CompilationUnit compilationUnit = Examples.activate(context, Path.of("com/example/nullness/OutsideUse.java"));
+        var existingAnnotation = new MarkerAnnotationExpr("org.jspecify.annotations.NullMarked");
+        var missingAnnotation = new MarkerAnnotationExpr("com.example.nullness.DoesNotExist");
+        compilationUnit.getType(0)
+            .addAnnotation(existingAnnotation)
+            .addAnnotation(missingAnnotation);
+
+        assertThat(context.resolveQualifiedName(existingAnnotation)).isEqualTo("org.jspecify.annotations.NullMarked");
+        assertThatThrownBy(() -> context.resolveQualifiedName(missingAnnotation)).isInstanceOf(
+            UnsolvedSymbolException.class);
+    }
+
+    @Test
+    public void testUnresolvableAnnotationIsOnlyAttemptedOnce()
+    {
+        var sourceBundle = Examples.importInto(new SourceBundle().withStatistics(), Examples.NULLNESS);
+        RuleContext context = sourceBundle.getRuleContext();
+
+        CompilationUnit compilationUnit = Examples.activate(context,
+            Path.of("com/example/nullness/NullMarkedClass.java"));
+        var type = compilationUnit.getType(0);
+        type.addMarkerAnnotation("DoesNotExist");
+        type.getMembers()
+            .forEach(member -> member.addMarkerAnnotation("DoesNotExist"));
+        List<AnnotationExpr> unresolvableAnnotations = compilationUnit.findAll(AnnotationExpr.class,
+            annotation -> annotation.getNameAsString()
+                .equals("DoesNotExist"));
+        AnnotationExpr packageAnnotation = context.lookup(Path.of(
+                "com/example/nullness/null_marked/package-info.java"))
+            .flatMap(unit -> unit.findAll(AnnotationExpr.class)
+                .stream())
+            .findFirst()
+            .orElseThrow();
+
+        ScanStatistics statistics = sourceBundle.getStatistics();
+        assertThat(context.findQualifiedName(unresolvableAnnotations.get(0))).isEmpty();
+        long resolutionCount = statistics.getResolutionCount();
+        for (AnnotationExpr annotation : unresolvableAnnotations)
+        {
+            // Resolving an annotation of another compilation unit in between must not make the cache forget
+            assertThat(context.findQualifiedName(packageAnnotation)).contains("org.jspecify.annotations.NullMarked");
+            resolutionCount = statistics.getResolutionCount();
+
+            assertThat(context.findQualifiedName(annotation)).isEmpty();
+            assertThat(statistics.getResolutionCount()).isEqualTo(resolutionCount);
+        }
+
+        assertThat(unresolvableAnnotations).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    public void testInheritedMemberTypesShadowCachedResults()
+    {
+        RuleContext context = Examples.importExamples(Examples.RESOLUTION)
+            .getRuleContext();
+
+        String importedMarker = "com.example.resolution.other.Marker";
+        String inheritedMarker = "com.example.resolution.Base.Marker";
+        assertThat(resolveFirstAnnotation(context, "ImportedMarkerUse")).isEqualTo(importedMarker);
+        assertThat(resolveFirstAnnotation(context, "InheritedMarkerUse")).isEqualTo(inheritedMarker);
+        assertThat(resolveFirstAnnotation(context, "ImportedMarkerUse")).isEqualTo(importedMarker);
+    }
+
+    @Test
+    public void testInheritedMemberTypesShadowSingleTypeImports()
+    {
+        RuleContext context = Examples.importExamples(Examples.RESOLUTION)
+            .getRuleContext();
+
+        assertThat(resolveFirstAnnotation(context, "SingleImportedMarkerUse")).isEqualTo(
+            "com.example.resolution.Base.Marker");
+    }
+
+    @Test
+    public void testInheritedMemberTypesShadowTypesOfPackage()
+    {
+        RuleContext context = Examples.importExamples(Examples.RESOLUTION)
+            .getRuleContext();
+
+        assertThat(resolveFirstAnnotation(context, "local/PackageMarkerUse")).isEqualTo(
+            "com.example.resolution.Base.Marker");
+    }
+
+    private static String resolveFirstAnnotation(RuleContext context, String className)
+    {
+        CompilationUnit compilationUnit = Examples.activate(context,
+            Path.of("com/example/resolution/" + className + ".java"));
+        AnnotationExpr annotation = compilationUnit.findFirst(AnnotationExpr.class)
+            .orElseThrow();
+        return context.resolveQualifiedName(annotation);
+    }
+
+    @Test
+    public void testRepeatedScansReuseResolvedExpressions()
+    {
+        var sourceBundle = Examples.importInto(new SourceBundle().withStatistics(), Examples.LANGUAGE);
+        ScanStatistics statistics = sourceBundle.getStatistics();
+
+        var firstResult = sourceBundle.runScan(new BitwiseOperatorUsage());
+        long resolutionCount = statistics.getResolutionCount();
+        var secondResult = sourceBundle.runScan(new BitwiseOperatorUsage());
+
+        assertThat(secondResult).containsExactlyElementsOf(firstResult);
+        assertThat(resolutionCount).isPositive();
+        assertThat(statistics.getResolutionCount()).isEqualTo(resolutionCount);
+    }
+
+    @Test
+    public void testResolvingExpressionsLeavesUnitDataUntouched()
+    {
+        RuleContext context = Examples.importExamples(Examples.LANGUAGE)
+            .getRuleContext();
+        CompilationUnit compilationUnit = Examples.activate(context,
+            Path.of("com/example/language/BitwiseFlags.java"));
+        Set<DataKey<?>> dataKeys = Set.copyOf(compilationUnit.getDataKeys());
+
+        List<BinaryExpr> expressions = compilationUnit.findAll(BinaryExpr.class);
+        expressions.forEach(context::findResolvedType);
+
+        // Scanner threads share the unit, so any data must be attached while importing
+        assertThat(expressions).isNotEmpty();
+        assertThat(compilationUnit.getDataKeys()).containsExactlyInAnyOrderElementsOf(dataKeys);
+    }
+
+    @Test
+    public void testTypeSolverReusesImportedCompilationUnits()
+    {
+        RuleContext context = Examples.importExamples(Examples.NULLNESS)
+            .getRuleContext();
+
+        Optional<Node> declaration = context.getTypeSolver()
+            .solveType("com.example.nullness.other.Nullable")
+            .toAst();
+        CompilationUnit importedUnit = context.lookup(Path.of("com/example/nullness/other/Nullable.java"))
+            .findFirst()
+            .orElseThrow();
+
+        assertThat(declaration.flatMap(Node::findCompilationUnit)).containsSame(importedUnit);
+    }
+
+    @Test
+    public void testScannedBundleCanBeCollected() throws InterruptedException
+    {
+        WeakReference<SourceBundle> reference = scanAndForgetBundle();
+
+        // JavaParser keeps a facade per type solver in a global map, which would retain the bundle on its own
+        JavaParserFacade.clearInstances();
+        for (int i = 0; i < 50 && reference.get() != null; i++)
+        {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertThat(reference.get()).isNull();
+    }
+
+    @Test
+    public void testStreamingScanLetsGoOfResolvedSyntaxTrees() throws IOException
+    {
+        var sourceBundle = Examples.importInto(new SourceBundle().withStreaming(), Examples.LANGUAGE);
+
+        // The rule resolves the operands of the XOR operators in this file
+        WeakReference<CompilationUnit> reference = lookUpWeakly(sourceBundle,
+            Path.of("com/example/language/BooleanLogic.java"));
+        assertThat(sourceBundle.runScan(new BitwiseOperatorUsage())).isNotEmpty();
+        GarbageCollection.run();
+
+        assertThat(reference.get()).isNull();
+    }
+
+    private static WeakReference<CompilationUnit> lookUpWeakly(SourceBundle sourceBundle, Path path)
+    {
+        return new WeakReference<>(sourceBundle.getRuleContext()
+            .lookup(path)
+            .findFirst()
+            .orElseThrow());
+    }
+
+    private static WeakReference<SourceBundle> scanAndForgetBundle()
+    {
+        var sourceBundle = Examples.importExamples(Examples.LANGUAGE);
+        assertThat(sourceBundle.runScan(new BitwiseOperatorUsage())).isNotEmpty();
+        return new WeakReference<>(sourceBundle);
+    }
+}
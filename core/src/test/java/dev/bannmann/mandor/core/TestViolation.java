@@ -0,0 +1,109 @@
+package dev.bannmann.mandor.core;
+
+import static dev.bannmann.mandor.core.AbstractRuleTest.ROOT_PATH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.stmt.AssertStmt;
+import dev.bannmann.mandor.core.rules.AssertStatementUsage;
+
+public class TestViolation
+{
+    @Test
+    public void testViolationsKeepRuleAndPosition()
+    {
+        List<Violation> result = Examples.importExamples(Examples.LANGUAGE)
+            .runScan(new AssertStatementUsage());
+
+        assertThat(result).isNotEmpty()
+            .allSatisfy(violation -> {
+                assertThat(violation.rule()).isEqualTo("AssertStatementUsage");
+                assertThat(violation.root()).isEqualTo(ROOT_PATH);
+                assertThat(violation.file()).isEqualTo(Path.of("com/example/language/CodeWithAssertions.java"));
+                assertThat(violation.hasPosition()).isTrue();
+                assertThat(violation.column()).isPositive();
+                assertThat(violation.getMessage()).endsWith(" in (CodeWithAssertions.java:%d)".formatted(
+                    violation.line()));
+            });
+    }
+
+    @Test
+    public void testMessagesWithOwnCodeLocationAreKept()
+    {
+        List<Violation> result = Examples.importExamples(Examples.LANGUAGE)
+            .runScan(new LegacyAssertStatementUsage());
+
+        assertThat(result).isNotEmpty()
+            .allSatisfy(violation -> {
+                assertThat(violation.hasPosition()).isFalse();
+                assertThat(violation.getMessage()).matches("Assert statement in \\(CodeWithAssertions\\.java:\\d+\\)");
+            });
+    }
+
+    /**
+     * Reports violations the way rules did before violations had a position.
+     */
+    private static class LegacyAssertStatementUsage extends SourceRule
+    {
+        @Override
+        @SuppressWarnings("deprecation")
+        protected void scan(CompilationUnit compilationUnit)
+        {
+            compilationUnit.findAll(AssertStmt.class)
+                .forEach(assertStmt -> addViolation("Assert statement in %s",
+                    getContext().getCodeLocation(assertStmt)));
+        }
+
+        @Override
+        public String getDescription()
+        {
+            return "Reports assert statements";
+        }
+    }
+
+    @DataProvider
+    public static Object[][] formattedArguments()
+    {
+        return new Object[][]{
+            new Object[]{ "%s", "text", "text" },
+            new Object[]{ "%c", 'x', "x" },
+            new Object[]{ "%b", true, "true" },
+            new Object[]{ "%d", (byte) 1, "1" },
+            new Object[]{ "%d", (short) 2, "2" },
+            new Object[]{ "%d", 3, "3" },
+            new Object[]{ "%d", 4L, "4" },
+            new Object[]{ "%.0f", 5f, "5" },
+            new Object[]{ "%.0f", 6d, "6" },
+            new Object[]{ "%d", BigInteger.valueOf(7), "7" },
+            new Object[]{ "%.0f", new BigDecimal("8"), "8" }
+        };
+    }
+
+    @Test(dataProvider = "formattedArguments")
+    public void testArgumentsKeepTheirFormatConversion(String template, Object argument, String expectedText)
+    {
+        Violation violation = Violation.of("Rule", ROOT_PATH, Path.of("Example.java"), 0, 0, template, argument);
+
+        assertThat(violation.arguments()).containsExactly(argument);
+        assertThat(violation.getText()).isEqualTo(expectedText);
+    }
+
+    @Test
+    public void testOtherArgumentsAreConvertedToStrings()
+    {
+        var builder = new StringBuilder("before");
+        Violation violation = Violation.of("Rule", ROOT_PATH, Path.of("Example.java"), 0, 0, "%s", builder);
+        builder.append(" and after");
+
+        assertThat(violation.arguments()).containsExactly("before");
+        assertThat(violation.getText()).isEqualTo("before");
+    }
+}
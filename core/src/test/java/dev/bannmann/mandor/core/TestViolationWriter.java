@@ -0,0 +1,109 @@
+package dev.bannmann.mandor.core;
+
+import static dev.bannmann.mandor.core.AbstractRuleTest.ROOT_PATH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import dev.bannmann.mandor.core.rules.BitwiseOperatorUsage;
+
+public class TestViolationWriter
+{
+    @Test
+    public void testWritersStreamViolations()
+    {
+        var sourceBundle = Examples.importExamples(Examples.LANGUAGE);
+        int violationCount = sourceBundle.runScan(new BitwiseOperatorUsage())
+            .size();
+
+        var ndjson = new StringWriter();
+        try (var writer = new NdjsonViolationWriter(ndjson))
+        {
+            sourceBundle.scan(new BitwiseOperatorUsage(), writer);
+        }
+        assertThat(ndjson.toString()
+            .lines()).hasSize(violationCount)
+            .allMatch(line -> line.startsWith("{\"rule\":\"BitwiseOperatorUsage\",\"root\":\""))
+            .allMatch(line -> line.contains("\",\"file\":\"com/example/language/"));
+
+        var sarif = new StringWriter();
+        try (var writer = new SarifViolationWriter(sarif))
+        {
+            sourceBundle.scan(new BitwiseOperatorUsage(), writer);
+        }
+        assertThat(sarif.toString()).contains("\"version\":\"2.1.0\"")
+            .endsWith("}}]}\n");
+        assertThat(sarif.toString()
+            .lines()
+            .filter(line -> line.contains("\"startLine\":"))).hasSize(violationCount);
+    }
+
+    @Test
+    public void testClosingTwiceCompletesReportOnce()
+    {
+        var ndjson = new StringWriter();
+        var writer = new NdjsonViolationWriter(ndjson);
+        Examples.importExamples(Examples.LANGUAGE)
+            .scan(new BitwiseOperatorUsage(), writer);
+        writer.close();
+        String report = ndjson.toString();
+
+        writer.close();
+
+        assertThat(ndjson).hasToString(report);
+
+        var sarif = new StringWriter();
+        var sarifWriter = new SarifViolationWriter(sarif);
+        sarifWriter.close();
+        sarifWriter.close();
+
+        assertThat(sarif.toString()).endsWith("\n],\"originalUriBaseIds\":{}}]}\n")
+            .containsOnlyOnce("originalUriBaseIds");
+    }
+
+    @Test
+    public void testFilesAreDistinguishedByRoot()
+    {
+        Path relativePath = Path.of("com/example/Example.java");
+        Path secondRoot = Examples.SECOND_ROOT_PATH;
+        List<Violation> violations = List.of(Violation.of("Rule", ROOT_PATH, relativePath, 1, 1, "first"),
+            Violation.of("Rule", secondRoot, relativePath, 1, 1, "second"));
+
+        var ndjson = new StringWriter();
+        try (var writer = new NdjsonViolationWriter(ndjson))
+        {
+            violations.forEach(writer::onViolation);
+        }
+        assertThat(ndjson.toString()
+            .lines()).containsExactly(formatNdjsonLine(ROOT_PATH, "first"), formatNdjsonLine(secondRoot, "second"));
+
+        var sarif = new StringWriter();
+        try (var writer = new SarifViolationWriter(sarif))
+        {
+            violations.forEach(writer::onViolation);
+        }
+        assertThat(sarif.toString()).contains("{\"uri\":\"com/example/Example.java\",\"uriBaseId\":\"ROOT0\"}",
+                "{\"uri\":\"com/example/Example.java\",\"uriBaseId\":\"ROOT1\"}")
+            .endsWith("\"originalUriBaseIds\":{\"ROOT0\":{\"uri\":\"%s\"},\"ROOT1\":{\"uri\":\"%s\"}}}]}\n".formatted(
+                ROOT_PATH.toUri(),
+                secondRoot.toUri()));
+    }
+
+    private static String formatNdjsonLine(Path root, String message)
+    {
+        return """
+            {"rule":"Rule","root":"%s","file":"com/example/Example.java","line":1,"column":1,"message":"%s"}\
+            """.formatted(toJsonPath(root), message);
+    }
+
+    private static String toJsonPath(Path path)
+    {
+        return path.toString()
+            .replace(File.separatorChar, '/');
+    }
+}
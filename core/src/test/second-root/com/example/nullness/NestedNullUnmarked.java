@@ -0,0 +1,28 @@
+package com.example.nullness;
+
+import javax.validation.constraints.NotNull;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The rules regard everything within a NullMarked type as NullMarked, regardless of NullUnmarked members.
+ */
+@NullMarked
+public class NestedNullUnmarked
+{
+    @NotNull // Violation: UndesiredNullabilityAnnotation
+    private String name = "";
+
+    private @Nullable Object object; // No violation of NullabilityAnnotationOutsideNullMarkedCode
+
+    @NullUnmarked
+    public static class Legacy
+    {
+        @NotNull // Violation: UndesiredNullabilityAnnotation
+        private String name = "";
+
+        private @Nullable Object object; // No violation of NullabilityAnnotationOutsideNullMarkedCode
+    }
+}
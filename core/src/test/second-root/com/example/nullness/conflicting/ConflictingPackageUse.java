@@ -0,0 +1,16 @@
+package com.example.nullness.conflicting;
+
+import java.util.List;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * If the package-info files of this package disagree, the package still counts as NullMarked.
+ */
+public class ConflictingPackageUse
+{
+    private @Nullable List<String> foo; // No violation of NullabilityAnnotationOutsideNullMarkedCode
+
+    private List<@NonNull String> bar; // Violation: UndesiredNullabilityAnnotation
+}
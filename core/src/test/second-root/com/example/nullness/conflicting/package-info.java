@@ -0,0 +1,7 @@
+/**
+ * Conflicts with the package-info file of this package in {@code src/test/java}.
+ */
+@NullUnmarked
+package com.example.nullness.conflicting;
+
+import org.jspecify.annotations.NullUnmarked;